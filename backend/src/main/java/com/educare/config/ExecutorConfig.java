@@ -0,0 +1,67 @@
+package com.educare.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Runs YouTube uploads off the request thread. The queue is bounded so a burst
+     * of uploads is refused up front instead of piling up staged files on disk.
+     */
+    @Bean(name = "videoPublishExecutor")
+    public ThreadPoolTaskExecutor videoPublishExecutor(
+            @Value("${app.video.publish.workers:2}") int workers,
+            @Value("${app.video.publish.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("video-publish-");
+        // In-flight uploads are resumed from the job table on the next start
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * BCrypt pool for login and registration, one thread per core. The queue is kept
+     * short so a login burst is refused quickly rather than timing out later.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${app.auth.hash-workers:0}") int workers,
+            @Value("${app.auth.hash-queue-capacity:200}") int queueCapacity) {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Resizes uploaded images into width variants. Decoding a large photo takes tens of
+     * MB of heap, so the pool is small and the queue bounded; refused work is picked up
+     * again on the next request for the image.
+     */
+    @Bean(name = "imageVariantExecutor")
+    public ThreadPoolTaskExecutor imageVariantExecutor(
+            @Value("${app.image.variants.workers:1}") int workers,
+            @Value("${app.image.variants.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        // Unfinished images have no done marker and are queued again on demand
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+package com.educare.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Page size policy shared by the list endpoints.
+ */
+@Component
+public class Pagination {
+
+    @Value("${app.pagination.default-size:50}")
+    private int defaultSize;
+
+    @Value("${app.pagination.max-size:200}")
+    private int maxSize;
+
+    // Requested size clamped to [1, max]; the default when none was asked for
+    public int size(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return Math.min(defaultSize, maxSize);
+        }
+        return Math.min(requested, maxSize);
+    }
+}
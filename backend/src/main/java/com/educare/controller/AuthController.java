@@ -1,12 +1,16 @@
 package com.educare.controller;
 
 import com.educare.dto.*;
+import com.educare.exception.TooManyRequestsException;
+import com.educare.security.RateLimitFilter;
 import com.educare.service.AuthService;
 import com.educare.dto.ApiResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.core.task.TaskRejectedException;
 import com.educare.entity.User;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
@@ -16,6 +20,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import com.google.api.client.auth.oauth2.TokenResponse;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 
 @RestController
 @RequestMapping("/api/auth")
@@ -23,6 +30,7 @@ import com.google.api.client.auth.oauth2.TokenResponse;
 public class AuthController {
 
     private final AuthService authService;
+    private final RateLimitFilter rateLimitFilter;
     @Value("${GOOGLE_CLIENT_ID}") 
     private String clientId;
 
@@ -60,16 +68,45 @@ public class AuthController {
         }
     }
 
+    // Hashing runs on its own pool; the request thread is released while it does
     @PostMapping("/register")
-    public ResponseEntity<ApiResponse<?>> register(@RequestBody @Valid RegisterRequest request) {
-        User savedUser = authService.register(request);
-        return ResponseEntity.ok(ApiResponse.ok("Registration successful", savedUser));
+    public CompletableFuture<ResponseEntity<ApiResponse<?>>> register(@RequestBody @Valid RegisterRequest request) {
+        return authService.register(request)
+                .thenApply(savedUser -> ResponseEntity.ok(ApiResponse.ok("Registration successful", savedUser)));
     }
 
+    // Only wrong passwords are counted, per account and address; the right one always gets in
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<?>> login(@RequestBody @Valid LoginRequest request) {
-        LoginResponse response = authService.login(request);
-        return ResponseEntity.ok(ApiResponse.ok("Login successful", response));
+    public CompletableFuture<ResponseEntity<ApiResponse<?>>> login(@RequestBody @Valid LoginRequest request,
+                                                                   HttpServletRequest httpRequest) {
+        String clientAddress = httpRequest.getRemoteAddr();
+        CompletableFuture<LoginResponse> login;
+        try {
+            login = authService.login(request);
+        } catch (TaskRejectedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw loginFailed(request, clientAddress, e);
+        }
+        return login.handle((response, error) -> {
+            if (error == null) {
+                return ResponseEntity.ok(ApiResponse.ok("Login successful", response));
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof RuntimeException e && !(e instanceof TaskRejectedException)) {
+                throw loginFailed(request, clientAddress, e);
+            }
+            throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+        });
+    }
+
+    private RuntimeException loginFailed(LoginRequest request, String clientAddress, RuntimeException failure) {
+        long retryAfter = rateLimitFilter.loginFailed(request.getEmail(), clientAddress);
+        if (retryAfter > 0) {
+            return new TooManyRequestsException("Too many failed login attempts for this account", retryAfter);
+        }
+        return failure;
     }
 
     @PostMapping("/logout")
@@ -77,7 +114,7 @@ public class AuthController {
         // Remove "Bearer " prefix if present
         String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
 
-        // authService.logout(token);
+        authService.logout(token);
         return ResponseEntity.ok(ApiResponse.ok("Logout successful", null));
     }
 
@@ -0,0 +1,145 @@
+package com.educare.controller;
+
+import com.educare.dto.ApiResponse;
+import com.educare.dto.CreateUploadSessionRequest;
+import com.educare.dto.UploadSessionResponse;
+import com.educare.entity.User;
+import com.educare.entity.VideoPublishJob;
+import com.educare.model.UploadSession;
+import com.educare.service.ChunkedUploadService;
+import com.educare.model.UploadMetadata;
+import com.educare.service.FileStorageService;
+import com.educare.service.ImageVariantService;
+import com.educare.service.LocalVideoStore;
+import com.educare.service.UploadMetadataIndex;
+import com.educare.service.VideoPublishService;
+import com.educare.util.UploadFileTypes;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resumable alternative to POST /api/teacher/upload for large files on flaky links:
+ * create a session, PUT chunks (in parallel, any order, retrying freely),
+ * GET the session to see which offsets are stored, then commit.
+ */
+@RestController
+@RequestMapping("/api/teacher/uploads")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+    private final FileStorageService fileStorageService;
+    private final VideoPublishService videoPublishService;
+    private final LocalVideoStore localVideoStore;
+    private final ImageVariantService imageVariantService;
+
+    @Value("${app.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> createSession(
+            @RequestBody @Valid CreateUploadSessionRequest request,
+            @AuthenticationPrincipal User currentUser) throws IOException {
+        UploadSession session = chunkedUploadService.create(request, currentUser);
+        return ResponseEntity.ok(ApiResponse.ok("Upload session created", toResponse(session)));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> getSession(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal User currentUser) {
+        UploadSession session = chunkedUploadService.get(uploadId, currentUser);
+        return ResponseEntity.ok(ApiResponse.ok("Upload session fetched", toResponse(session)));
+    }
+
+    @PutMapping(value = "/{uploadId}/chunks", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ApiResponse<UploadSessionResponse>> putChunk(
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            HttpServletRequest request,
+            @AuthenticationPrincipal User currentUser) throws IOException {
+        UploadSession session = chunkedUploadService.writeChunk(
+                uploadId, offset, request.getContentLengthLong(), request.getInputStream(), currentUser);
+        return ResponseEntity.ok(ApiResponse.ok("Chunk stored", toResponse(session)));
+    }
+
+    @PostMapping("/{uploadId}/commit")
+    public ResponseEntity<ApiResponse<Map<String, String>>> commit(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal User currentUser) throws IOException {
+        UploadSession session = chunkedUploadService.complete(uploadId, currentUser);
+        Path file = session.getFile();
+        try {
+            String fileType = UploadFileTypes.fileType(session.getContentType());
+            Map<String, String> responseData = new HashMap<>();
+            responseData.put("fileType", fileType);
+
+            if (fileType.equals("VIDEO") && localVideoStore.isEnabled()) {
+                String filename = localVideoStore.store(file, session.getFilename());
+                file = null;
+
+                responseData.put("url", baseUrl + "/uploads/" + filename);
+                return ResponseEntity.ok(ApiResponse.ok("File uploaded successfully", responseData));
+            }
+
+            if (fileType.equals("VIDEO")) {
+                VideoPublishJob job = videoPublishService.submit(
+                        currentUser, file, session.getFilename(), null, null);
+                file = null; // owned by the publishing job from here on
+
+                responseData.put("jobId", String.valueOf(job.getId()));
+                responseData.put("status", job.getStatus());
+                return ResponseEntity.accepted().body(ApiResponse.ok("Video queued for publishing", responseData));
+            }
+
+            // Chunks arrived out of order, so the digest is taken once over the finished file
+            String filename = fileStorageService.publicName(session.getFilename());
+            UploadMetadata stored = fileStorageService.bind(
+                    filename, file, UploadMetadataIndex.sha256Of(file), session.getSize());
+            imageVariantService.prepare(stored);
+
+            responseData.put("url", baseUrl + "/uploads/" + filename);
+            return ResponseEntity.ok(ApiResponse.ok("File uploaded successfully", responseData));
+        } finally {
+            if (file != null) {
+                Files.deleteIfExists(file); // no-op once bound into the store
+            }
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<Void>> abort(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal User currentUser) {
+        chunkedUploadService.abort(uploadId, currentUser);
+        return ResponseEntity.ok(ApiResponse.ok("Upload session cancelled"));
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session) {
+        return UploadSessionResponse.builder()
+                .uploadId(session.getId())
+                .filename(session.getFilename())
+                .size(session.getSize())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .receivedOffsets(session.getReceivedOffsets())
+                .complete(session.isComplete())
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(session.getExpiresAt()), ZoneId.systemDefault()))
+                .build();
+    }
+}
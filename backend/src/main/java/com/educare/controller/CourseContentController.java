@@ -2,10 +2,12 @@ package com.educare.controller;
 
 import com.educare.dto.AddCourseContentRequest;
 import com.educare.dto.ApiResponse;
+import com.educare.dto.CourseContentResponse;
+import com.educare.dto.CursorPage;
+import com.educare.config.Pagination;
 import com.educare.entity.CourseContent;
 import com.educare.entity.User;
 import com.educare.service.CourseContentService;
-import com.educare.repository.CourseContentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +20,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/teacher")
@@ -25,25 +28,23 @@ import java.util.List;
 public class CourseContentController {
 
     private final CourseContentService courseContentService;
-    private final CourseContentRepository courseContentRepository;
+    private final Pagination pagination;
 
     @GetMapping("/courses/{courseId}/contents")
-    public ResponseEntity<ApiResponse<List<CourseContent>>> getContents(
+    public ResponseEntity<ApiResponse<List<CourseContentResponse>>> getContents(
             @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal User currentUser) {
 
-        List<CourseContent> contents;
-        if (currentUser.getRole().equalsIgnoreCase("TEACHER") || currentUser.getRole().equalsIgnoreCase("ADMIN")) {
-            contents = courseContentRepository.findByCourseId(courseId);
-        } else {
-            contents = courseContentRepository.findAccessibleContentsForStudent(currentUser.getId(), courseId);
-        }
+        CursorPage<CourseContentResponse> contents = courseContentService.getContentsForUser(
+                courseId, currentUser.getId(), currentUser.getRole(), cursor, pagination.size(limit));
 
-        return ResponseEntity.ok(ApiResponse.ok("Course contents fetched", contents));
+        return ResponseEntity.ok(ApiResponse.page("Course contents fetched", contents));
     }
 
     @PostMapping(value = "/courses/{courseId}/contents")
-    public ResponseEntity<ApiResponse<CourseContent>> addContent(
+    public ResponseEntity<ApiResponse<CourseContentResponse>> addContent(
             @PathVariable Long courseId,
             @RequestBody AddCourseContentRequest request) {
 
@@ -61,10 +62,24 @@ public class CourseContentController {
                     .body(ApiResponse.error("Course not found with id: " + courseId));
         }
 
-        return ResponseEntity.ok(ApiResponse.ok("Content added successfully", savedContent));
+        return ResponseEntity.ok(ApiResponse.ok("Content added successfully", courseContentService.toResponse(savedContent)));
+    }
+    /**
+     * Imports many contents into one course at once, e.g. a whole lecture series.
+     * All or nothing: one invalid item rolls the import back.
+     */
+    @PostMapping("/courses/{courseId}/contents/bulk")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> addContents(
+            @PathVariable Long courseId,
+            @RequestBody @Valid List<@Valid AddCourseContentRequest> requests,
+            @AuthenticationPrincipal User currentUser) {
+
+        int created = courseContentService.addContents(courseId, requests, currentUser);
+        return ResponseEntity.ok(ApiResponse.ok("Contents added successfully", Map.of("created", created)));
     }
+
     @PutMapping("/courses/{courseId}/contents/{contentId}")
-    public ResponseEntity<ApiResponse<CourseContent>> updateContent(
+    public ResponseEntity<ApiResponse<CourseContentResponse>> updateContent(
             @PathVariable Long courseId,
             @PathVariable Long contentId,
             @RequestBody AddCourseContentRequest request) {
@@ -85,13 +100,15 @@ public class CourseContentController {
                     .body(ApiResponse.error("Content not found with id: " + contentId));
         }
 
-        return ResponseEntity.ok(ApiResponse.ok("Content updated successfully", updatedContent));
+        return ResponseEntity.ok(ApiResponse.ok("Content updated successfully", courseContentService.toResponse(updatedContent)));
     }
 
 
     @GetMapping("/contents/{id}")
-    public ResponseEntity<ApiResponse<CourseContent>> getContent(@PathVariable Long id) {
-        CourseContent content = courseContentService.getContentById(id);
+    public ResponseEntity<ApiResponse<CourseContentResponse>> getContent(@PathVariable Long id,
+                                                                         @AuthenticationPrincipal User currentUser) {
+        CourseContentResponse content = courseContentService.getContentForUser(
+                id, currentUser.getId(), currentUser.getRole());
 
         if (content == null) {
             return ResponseEntity
@@ -2,6 +2,10 @@ package com.educare.controller;
 
 import com.educare.dto.AddCourseRequest;
 import com.educare.dto.ApiResponse;
+import com.educare.dto.CursorPage;
+import com.educare.config.Pagination;
+import com.educare.dto.CourseResponse;
+import com.educare.dto.TeacherCourseStatsResponse;
 import com.educare.entity.Course;
 import com.educare.entity.User;
 import com.educare.service.CourseService;
@@ -22,9 +26,10 @@ public class CourseController {
 
     private final CourseService courseService;
     private final UserService userService; // provides currently logged-in user
+    private final Pagination pagination;
 
     @PostMapping("/courses")
-    public ResponseEntity<ApiResponse<Course>> addCourse(
+    public ResponseEntity<ApiResponse<CourseResponse>> addCourse(
             @RequestBody @Valid AddCourseRequest request,
             @AuthenticationPrincipal User currentUser) {
 
@@ -35,16 +40,36 @@ public class CourseController {
         }
 
         Course savedCourse = courseService.addCourse(currentUser, request);
-        return ResponseEntity.ok(ApiResponse.ok("Course added successfully", savedCourse));
+        return ResponseEntity.ok(ApiResponse.ok("Course added successfully", CourseResponse.from(savedCourse)));
     }
 
     @GetMapping("/courses")
-    public ResponseEntity<ApiResponse<List<Course>>> getAllCourses() {
-        List<Course> courses = courseService.getAllCourses();
-        return ResponseEntity.ok(ApiResponse.ok("Courses fetched successfully", courses));
+    public ResponseEntity<ApiResponse<List<CourseResponse>>> getAllCourses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<CourseResponse> courses = courseService.getAllCourses(cursor, pagination.size(limit));
+        return ResponseEntity.ok(ApiResponse.page("Courses fetched successfully", courses));
     }
+    /**
+     * The caller's courses with per-course totals, replacing one enrollments and
+     * one contents call per course on the teacher home screen.
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiResponse<List<TeacherCourseStatsResponse>>> getDashboard(
+            @AuthenticationPrincipal User currentUser) {
+
+        if (currentUser == null) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("User not authenticated"));
+        }
+
+        List<TeacherCourseStatsResponse> stats = courseService.getTeacherDashboard(currentUser);
+        return ResponseEntity.ok(ApiResponse.ok("Dashboard fetched successfully", stats));
+    }
+
     @PutMapping("/courses/{id}")
-    public ResponseEntity<ApiResponse<Course>> editCourse(
+    public ResponseEntity<ApiResponse<CourseResponse>> editCourse(
             @PathVariable Long id,
             @RequestBody @Valid AddCourseRequest request, @AuthenticationPrincipal User currentUser) {
 
@@ -55,6 +80,11 @@ public class CourseController {
         }
 
         Course course = courseService.getCourseById(id);
+        if (course == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Course not found"));
+        }
         if (!course.getTeacher().getId().equals(currentUser.getId())) {
         return ResponseEntity
                 .status(HttpStatus.FORBIDDEN)
@@ -62,11 +92,11 @@ public class CourseController {
         }
 
         Course updatedCourse = courseService.updateCourse(course, request);
-        return ResponseEntity.ok(ApiResponse.ok("Course updated successfully", updatedCourse));
+        return ResponseEntity.ok(ApiResponse.ok("Course updated successfully", CourseResponse.from(updatedCourse)));
     }
     @GetMapping("/courses/{id}")
-    public ResponseEntity<ApiResponse<Course>> getCourseById(@PathVariable Long id) {
-        Course course = courseService.getCourseById(id);
+    public ResponseEntity<ApiResponse<CourseResponse>> getCourseById(@PathVariable Long id) {
+        CourseResponse course = courseService.getCourseResponseById(id);
         if (course == null) {
             return ResponseEntity
                     .status(HttpStatus.NOT_FOUND)
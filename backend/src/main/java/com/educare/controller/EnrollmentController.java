@@ -1,6 +1,8 @@
 package com.educare.controller;
 
+import com.educare.config.Pagination;
 import com.educare.dto.ApiResponse;
+import com.educare.dto.CursorPage;
 import com.educare.dto.EnrollmentResponse;
 import com.educare.dto.FreeEnrollmentRequest;
 import com.educare.entity.User;
@@ -20,6 +22,9 @@ public class EnrollmentController {
     @Autowired
     private EnrollmentService enrollmentService;
 
+    @Autowired
+    private Pagination pagination;
+
     @PostMapping("/free")
     public ResponseEntity<ApiResponse<EnrollmentResponse>> giveFreeEnrollment(
             @RequestBody @Valid FreeEnrollmentRequest request,
@@ -65,8 +70,12 @@ public class EnrollmentController {
     }
      /** ✅ 3. Get all enrollments for a course (teacher view) */
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<ApiResponse<List<EnrollmentResponse>>> getEnrollmentsByCourse(@PathVariable Long courseId) {
-        List<EnrollmentResponse> responses = enrollmentService.getEnrollmentsByCourse(courseId);
-        return ResponseEntity.ok(ApiResponse.ok("Enrollments fetched successfully", responses));
+    public ResponseEntity<ApiResponse<List<EnrollmentResponse>>> getEnrollmentsByCourse(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<EnrollmentResponse> responses =
+                enrollmentService.getEnrollmentsByCourse(courseId, cursor, pagination.size(limit));
+        return ResponseEntity.ok(ApiResponse.page("Enrollments fetched successfully", responses));
     }
 }
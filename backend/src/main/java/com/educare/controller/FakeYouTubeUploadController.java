@@ -0,0 +1,153 @@
+package com.educare.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for YouTube's resumable upload protocol, for benchmarking chunk
+ * size against throughput without network access. Enable it with
+ * app.youtube.fake-endpoint.enabled=true and point the real client at it with
+ * app.youtube.root-url=http://localhost:8080/fake-youtube/. Bodies are counted and
+ * discarded; a configurable share of chunks is cut short with a 503 so the
+ * resume-from-last-acknowledged-byte path gets exercised.
+ */
+@RestController
+@RequestMapping("/fake-youtube/upload/youtube/v3")
+@ConditionalOnProperty(name = "app.youtube.fake-endpoint.enabled", havingValue = "true")
+public class FakeYouTubeUploadController {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int RESUME_INCOMPLETE = 308;
+
+    private final Map<String, FakeUpload> uploads = new ConcurrentHashMap<>();
+
+    @Value("${app.youtube.fake-endpoint.throughput:50MB}")
+    private DataSize throughput; // per second, per request
+
+    @Value("${app.youtube.fake-endpoint.failure-rate:0.0}")
+    private double failureRate;
+
+    @PostMapping(value = {"/videos", "/thumbnails/set"}, params = "uploadType=resumable")
+    public ResponseEntity<Void> initiate(
+            @RequestHeader(value = "X-Upload-Content-Length", required = false) Long length,
+            HttpServletRequest request) {
+        String uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new FakeUpload(length != null ? length : -1,
+                request.getRequestURI().endsWith("/videos")));
+
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQuery("uploadType=resumable&upload_id=" + uploadId)
+                .build()
+                .toUri();
+        return ResponseEntity.ok().location(location).build();
+    }
+
+    @PutMapping(value = {"/videos", "/thumbnails/set"}, params = "upload_id")
+    public ResponseEntity<String> chunk(
+            @RequestParam("upload_id") String uploadId,
+            @RequestHeader(value = HttpHeaders.CONTENT_RANGE, required = false) String contentRange,
+            HttpServletRequest request) throws IOException {
+        FakeUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // "bytes <start>-<end>/<total>" for data, "bytes */<total>" to ask what was stored
+        long start = -1;
+        if (contentRange != null && contentRange.startsWith("bytes ")) {
+            String range = contentRange.substring(6);
+            int slash = range.indexOf('/');
+            String total = slash >= 0 ? range.substring(slash + 1) : "*";
+            if (!total.equals("*")) {
+                upload.length = Long.parseLong(total);
+            }
+            if (!range.startsWith("*")) {
+                start = Long.parseLong(range.substring(0, range.indexOf('-')));
+            }
+        }
+
+        long received = drain(request.getInputStream());
+
+        synchronized (upload) {
+            if (start >= 0 && start <= upload.stored) {
+                if (shouldFail()) {
+                    // Keep part of the chunk, as a server that lost the connection mid-write would
+                    upload.stored = Math.max(upload.stored,
+                            start + ThreadLocalRandom.current().nextLong(received + 1));
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+                }
+                upload.stored = Math.max(upload.stored, start + received);
+            }
+
+            if (upload.length >= 0 && upload.stored >= upload.length) {
+                uploads.remove(uploadId);
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(upload.video
+                                ? "{\"kind\":\"youtube#video\",\"id\":\"fake-" + uploadId.substring(0, 8)
+                                        + "\",\"status\":{\"uploadStatus\":\"uploaded\"}}"
+                                : "{\"kind\":\"youtube#thumbnailSetResponse\",\"items\":[]}");
+            }
+
+            ResponseEntity.BodyBuilder incomplete = ResponseEntity.status(RESUME_INCOMPLETE);
+            if (upload.stored > 0) {
+                incomplete.header(HttpHeaders.RANGE, "bytes=0-" + (upload.stored - 1));
+            }
+            return incomplete.build();
+        }
+    }
+
+    // Reads and discards the body at the configured throughput
+    private long drain(InputStream in) throws IOException {
+        long bytesPerSecond = Math.max(1, throughput.toBytes());
+        long started = System.nanoTime();
+        long read = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            read += n;
+            long aheadNanos = read * 1_000_000_000L / bytesPerSecond - (System.nanoTime() - started);
+            if (aheadNanos > 0) {
+                try {
+                    Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Upload interrupted");
+                }
+            }
+        }
+        return read;
+    }
+
+    private boolean shouldFail() {
+        return failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+    }
+
+    private static final class FakeUpload {
+        private final boolean video;
+        private volatile long length; // -1 until the client says
+        private long stored;
+
+        FakeUpload(long length, boolean video) {
+            this.length = length;
+            this.video = video;
+        }
+    }
+}
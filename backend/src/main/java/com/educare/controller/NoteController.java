@@ -1,6 +1,8 @@
 package com.educare.controller;
 
+import com.educare.config.Pagination;
 import com.educare.dto.AddNoteRequest;
+import com.educare.dto.CursorPage;
 import com.educare.dto.NoteResponse;
 import com.educare.entity.Note;
 import com.educare.entity.User;
@@ -22,6 +24,9 @@ public class NoteController {
     @Autowired
     private NoteService noteService;
 
+    @Autowired
+    private Pagination pagination;
+
     @PostMapping("/add")
     public ResponseEntity<ApiResponse<NoteResponse>> addNote(
             @RequestBody @Valid AddNoteRequest request,
@@ -32,10 +37,13 @@ public class NoteController {
     }
 
     @GetMapping("/courses/{courseId}")
-    public ResponseEntity<ApiResponse<List<NoteResponse>>> getCourseNotes(@PathVariable Long courseId) {
+    public ResponseEntity<ApiResponse<List<NoteResponse>>> getCourseNotes(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<NoteResponse> notes = noteService.getNotesByCourse(courseId);
-            return ResponseEntity.ok(ApiResponse.ok("Notes fetched successfully", notes));
+            CursorPage<NoteResponse> notes = noteService.getNotesByCourse(courseId, cursor, pagination.size(limit));
+            return ResponseEntity.ok(ApiResponse.page("Notes fetched successfully", notes));
         } catch (Exception e) {
             return ResponseEntity.ok(ApiResponse.error("Failed to fetch notes: " + e.getMessage()));
         }
@@ -1,12 +1,20 @@
 package com.educare.controller;
 
 import com.educare.dto.ApiResponse;
-import com.educare.entity.Course;
-import com.educare.entity.CourseContent;
+import com.educare.dto.CourseContentResponse;
+import com.educare.dto.CourseResponse;
+import com.educare.dto.CursorPage;
+import com.educare.config.Pagination;
+import com.educare.entity.User;
+import com.educare.service.CatalogSnapshotService;
 import com.educare.service.CourseContentService;
 import com.educare.service.CourseService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,27 +26,58 @@ public class StudentCourseController {
 
     private final CourseService courseService;
     private final CourseContentService courseContentService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final Pagination pagination;
 
     /**
-     * Get all published courses
+     * Get all published courses. Pages are served pre-serialised from the catalog
+     * snapshot; a matching If-None-Match gets 304 without a body.
      */
     @GetMapping("/courses")
-    public ResponseEntity<ApiResponse<List<Course>>> getAllCourses() {
+    public ResponseEntity<?> getAllCourses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            List<Course> courses = courseService.getAllPublishedCourses();
-            return ResponseEntity.ok(ApiResponse.ok("Published courses fetched", courses));
+            int size = pagination.size(limit);
+            CatalogSnapshotService.EncodedPage page = catalogSnapshotService.page(cursor, size, () -> {
+                CursorPage<CourseResponse> courses = courseService.getAllPublishedCourses(cursor, size);
+                return ApiResponse.page("Published courses fetched", courses);
+            });
+
+            boolean gzip = CatalogSnapshotService.acceptsGzip(acceptEncoding);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .eTag(page.etag(gzip));
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.gzip());
+            }
+            return response.body(page.json());
         } catch (Exception e) {
             return ResponseEntity.ok(ApiResponse.error("Failed to fetch courses: " + e.getMessage()));
         }
     }
 
+    /**
+     * Search published courses by title, description and teacher name, best match first
+     */
+    @GetMapping("/courses/search")
+    public ResponseEntity<ApiResponse<List<CourseResponse>>> searchCourses(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        List<CourseResponse> courses = courseService.searchPublishedCourses(query, pagination.size(limit));
+        return ResponseEntity.ok(ApiResponse.ok("Courses found", courses));
+    }
+
     /**
      * Get a single published course by ID
      */
     @GetMapping("/courses/{id}")
-    public ResponseEntity<ApiResponse<Course>> getCourse(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<CourseResponse>> getCourse(@PathVariable Long id) {
         try {
-            Course course = courseService.getPublishedCourseById(id);
+            CourseResponse course = courseService.getPublishedCourseById(id);
             return ResponseEntity.ok(ApiResponse.ok("Course fetched", course));
         } catch (Exception e) {
             return ResponseEntity.ok(ApiResponse.error("Course not found or not published"));
@@ -46,27 +85,35 @@ public class StudentCourseController {
     }
 
     /**
-     * Get all content for a published course
+     * Get the content of a published course: everything if the student is enrolled or
+     * has paid, otherwise only the free items
      */
     @GetMapping("/courses/{id}/contents")
-    public ResponseEntity<ApiResponse<List<CourseContent>>> getCourseContents(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<List<CourseContentResponse>>> getCourseContents(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal User currentUser) {
         try {
-            List<CourseContent> contents = courseContentService.getContentsByCourseId(id);
-            return ResponseEntity.ok(ApiResponse.ok("Course contents fetched", contents));
+            CursorPage<CourseContentResponse> contents = courseContentService.getPublishedContentsForUser(
+                    id, currentUser.getId(), currentUser.getRole(), cursor, pagination.size(limit));
+            return ResponseEntity.ok(ApiResponse.page("Course contents fetched", contents));
         } catch (Exception e) {
             return ResponseEntity.ok(ApiResponse.error("Failed to fetch course contents: " + e.getMessage()));
         }
     }
     @GetMapping("/courses/{courseId}/contents/{contentId}")
-    public ResponseEntity<ApiResponse<CourseContent>> getCourseContentById(
+    public ResponseEntity<ApiResponse<CourseContentResponse>> getCourseContentById(
             @PathVariable Long courseId,
-            @PathVariable Long contentId) {
+            @PathVariable Long contentId,
+            @AuthenticationPrincipal User currentUser) {
 
         try {
-            CourseContent content = courseContentService.getPublishedCourseContentById(courseId, contentId);
+            CourseContentResponse content = courseContentService.getPublishedCourseContentForUser(
+                    courseId, contentId, currentUser.getId(), currentUser.getRole());
 
             if (content == null) {
-                return ResponseEntity.ok(ApiResponse.error("Course content not found or course not published"));
+                return ResponseEntity.ok(ApiResponse.error("Course content not found, course not published or not purchased"));
             }
 
             return ResponseEntity.ok(ApiResponse.ok("Course content fetched successfully", content));
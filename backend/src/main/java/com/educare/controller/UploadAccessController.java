@@ -2,47 +2,138 @@
 package com.educare.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import com.educare.model.UploadMetadata;
+import com.educare.security.ContentUrlSigner;
+import com.educare.service.FileStorageService;
+import com.educare.service.FileStreamingService;
+import com.educare.service.ImageVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@RequiredArgsConstructor
 public class UploadAccessController {
 
+    private final FileStreamingService fileStreamingService;
+    private final FileStorageService fileStorageService;
+    private final ContentUrlSigner contentUrlSigner;
+    private final ImageVariantService imageVariantService;
+
+    // Client hints (RFC 8942) for picking an image size when the URL carries no w=
+    private static final String DPR_HINT = "Sec-CH-DPR";
+    private static final String WIDTH_HINT = "Sec-CH-Width";
+    private static final int MAX_IMAGE_WIDTH = 4096;
+
+    // An original sent in place of a variant that is still being built; asked for again soon
+    private static final String PROVISIONAL = "public, max-age=60";
+
     @Value("${app.upload.dir}")
     private String uploadDir;
 
     @Value("${app.base-url}")
     private String baseUrl;
 
+    @Value("${app.content-url.enforce:true}")
+    private boolean enforceSignatures;
+
+    /**
+     * Serves an upload. Course files need a signed link from the content endpoints
+     * (checked with one HMAC, no lookups); images stay public because course covers
+     * and thumbnails are shown to everyone.
+     *
+     * Images are downscaled on request: {@code w} is the display width in CSS pixels,
+     * multiplied by the Sec-CH-DPR hint; without it the Sec-CH-Width hint is used.
+     * The smallest stored variant at least that wide is sent.
+     */
     @GetMapping("/uploads/{filename:.+}")
-    public ResponseEntity<Resource> viewFile(@PathVariable String filename) throws IOException {
-        Path filePath = Paths.get(uploadDir).resolve(filename).normalize();
-        if (!Files.exists(filePath)) {
-            return ResponseEntity.notFound().build();
+    public void viewFile(@PathVariable String filename,
+                         @RequestParam(name = ContentUrlSigner.COURSE_PARAM, required = false) String courseId,
+                         @RequestParam(name = ContentUrlSigner.CONTENT_PARAM, required = false) String contentId,
+                         @RequestParam(name = ContentUrlSigner.EXPIRES_PARAM, required = false) String expires,
+                         @RequestParam(name = ContentUrlSigner.SIGNATURE_PARAM, required = false) String signature,
+                         @RequestParam(name = "w", required = false) String w,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        String cacheControl = null;
+        if (signature != null) {
+            if (!contentUrlSigner.verify("/uploads/" + filename, courseId, contentId, expires, signature)) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN);
+                return;
+            }
+            // Shared caches may keep the body, but not past the link's expiry
+            long remaining = Math.max(0, Long.parseLong(expires) - System.currentTimeMillis() / 1000);
+            cacheControl = "public, max-age=" + remaining;
+        } else if (enforceSignatures && !isImage(filename)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
         }
 
-        Resource resource = new UrlResource(filePath.toUri());
-        String contentType = Files.probeContentType(filePath);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
+        UploadMetadata metadata = fileStorageService.lookup(filename);
+        if (metadata == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+        if (isImage(filename)) {
+            response.setHeader("Accept-CH", DPR_HINT + ", " + WIDTH_HINT);
+            response.addHeader(HttpHeaders.VARY, DPR_HINT + ", " + WIDTH_HINT);
+            int width = requestedWidth(w, request);
+            if (width > 0) {
+                UploadMetadata variant = imageVariantService.select(metadata, width);
+                if (variant != null) {
+                    metadata = variant;
+                } else {
+                    cacheControl = PROVISIONAL;
+                }
+            }
+        }
+
+        if (cacheControl != null) {
+            fileStreamingService.serve(metadata, cacheControl, request, response);
+        } else {
+            fileStreamingService.serve(metadata, request, response);
+        }
+    }
+
+    // Device pixels wanted, or 0 if the client gave no size
+    private static int requestedWidth(String w, HttpServletRequest request) {
+        double width;
+        try {
+            if (w != null) {
+                double dpr = 1;
+                String dprHint = request.getHeader(DPR_HINT);
+                if (dprHint != null) {
+                    dpr = Math.min(4, Math.max(1, Double.parseDouble(dprHint)));
+                }
+                width = Integer.parseInt(w) * dpr;
+            } else {
+                String widthHint = request.getHeader(WIDTH_HINT);
+                if (widthHint == null) {
+                    return 0;
+                }
+                width = Integer.parseInt(widthHint.trim());
+            }
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+        return width > 0 ? (int) Math.min(MAX_IMAGE_WIDTH, Math.ceil(width)) : 0;
     }
-}
 
+    // Decided from the name alone, so refused requests cost no I/O
+    private static boolean isImage(String filename) {
+        return MediaTypeFactory.getMediaType(filename)
+                .map(type -> type.isCompatibleWith(MediaType.parseMediaType("image/*")))
+                .orElse(false);
+    }
+}
@@ -1,13 +1,25 @@
 package com.educare.controller;
 
 import com.educare.dto.ApiResponse;
+import com.educare.entity.User;
+import com.educare.entity.VideoPublishJob;
+import com.educare.util.MultipartStreamReader;
+import com.educare.util.UploadFileTypes;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.MediaType;
-import com.educare.service.YouTubeUploadService;
+import com.educare.model.UploadMetadata;
+import com.educare.service.FileStorageService;
+import com.educare.service.ImageVariantService;
+import com.educare.service.LocalVideoStore;
+import com.educare.service.VideoPublishService;
 
 import java.io.*;
 import java.nio.file.*;
@@ -24,115 +36,152 @@ public class UploadController {
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
-    // Stub for YouTube service (replace with actual)
-    private final YouTubeUploadService youtubeUploadService;
-    
-    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of(
-            "mov", "mpeg4", "mp4", "avi", "wmv",
-            "mpegps", "flv", "3gpp", "webm",
-            "dnxhr", "prores", "cineform", "hevc"
-    );
+    @Value("${spring.servlet.multipart.max-file-size}")
+    private DataSize maxFileSize;
 
-    
+    @Value("${spring.servlet.multipart.max-request-size}")
+    private DataSize maxRequestSize;
 
+    private final VideoPublishService videoPublishService;
+    private final FileStorageService fileStorageService;
+    private final LocalVideoStore localVideoStore;
+    private final ImageVariantService imageVariantService;
+
+    private static final Set<String> THUMBNAIL_TYPES = Set.of("image/jpeg", "image/png", "image/gif");
+    private static final int MAX_THUMBNAIL_BYTES = 2 * 1024 * 1024;
+
+    /**
+     * Multipart upload of a "file" part plus an optional "thumbnail" for videos.
+     * The body is parsed as it arrives (multipart resolution is lazy and never
+     * triggered here), so the file part goes straight into the upload store
+     * instead of being spooled by Tomcat and copied again. Videos are handed to
+     * a background publishing job; poll /api/teacher/video-jobs/{jobId} for the URL.
+     * With app.video.storage=local they are kept in the upload store instead.
+     */
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ApiResponse<Map<String, String>>> uploadFile(
-            @RequestParam("file") MultipartFile file, @RequestParam(value = "thumbnail", required = false) MultipartFile thumbnail) {
-        System.out.println("------------HERE ................");
+    public ResponseEntity<ApiResponse<Map<String, String>>> uploadFile(HttpServletRequest request,
+                                                                       @AuthenticationPrincipal User currentUser) {
+        Path stagedVideo = null;
         try {
-            String url;
-            String fileType;
-            String filename = file.getOriginalFilename();
-            String extension = (filename != null && filename.contains("."))
-                ? filename.substring(filename.lastIndexOf('.') + 1).toLowerCase()
-                : "";
-
-            // Detect file type from MIME type
-            String contentType = file.getContentType(); // e.g., "video/mp4", "application/pdf"
-            System.out.println("Content Type --------->" + contentType);
-            if (contentType != null) {
-                if (contentType.startsWith("video/")) {
-                    if(!SUPPORTED_EXTENSIONS.contains(extension)) {
-                        return ResponseEntity.badRequest().body(ApiResponse.error("Unsupported video format"));
+            // Refused before reading when declared up front; chunked bodies are counted as they arrive
+            if (request.getContentLengthLong() > maxRequestSize.toBytes()) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(ApiResponse.error("File upload failed: Request exceeds the maximum size of "
+                                + maxRequestSize.toBytes() + " bytes"));
+            }
+
+            String boundary = MediaType.parseMediaType(request.getContentType()).getParameter("boundary");
+
+            String url = null;
+            String fileType = null;
+            String videoTitle = null;
+            String thumbnailType = null;
+            byte[] thumbnail = null;
+
+            try (MultipartStreamReader reader =
+                         new MultipartStreamReader(request.getInputStream(), boundary,
+                                 maxFileSize.toBytes(), maxRequestSize.toBytes())) {
+                MultipartStreamReader.Part part;
+                while ((part = reader.next()) != null) {
+                    if ("thumbnail".equals(part.getName())) {
+                        thumbnailType = part.getContentType();
+                        thumbnail = part.getBody().readNBytes(MAX_THUMBNAIL_BYTES + 1);
+                        continue;
                     }
-                    String thumbContentType = thumbnail.getContentType();
-                    if (thumbContentType == null || 
-                        !(thumbContentType.equals("image/jpeg") ||
-                        thumbContentType.equals("image/png") ||
-                        thumbContentType.equals("image/gif"))) {
-                        return ResponseEntity.badRequest().body(ApiResponse.error("Invalid thumbnail format. Allowed: JPG, PNG, GIF"));
+                    if (!"file".equals(part.getName()) || fileType != null) {
+                        continue;
                     }
 
-                    if (thumbnail.getSize() > 2 * 1024 * 1024) {
-                        return ResponseEntity.badRequest().body(ApiResponse.error("Thumbnail too large. Max 2MB allowed."));
-                    }
+                    String filename = part.getFilename();
 
-                    // Save the MultipartFile temporarily
-                    String tempFilePath = System.getProperty("java.io.tmpdir") + "/" + file.getOriginalFilename();
-                    Files.copy(file.getInputStream(), Paths.get(tempFilePath), StandardCopyOption.REPLACE_EXISTING);
-
-                    // Upload to YouTube as unlisted
-                    String videoId = youtubeUploadService.uploadVideo(
-                            tempFilePath,
-                            file.getOriginalFilename(),
-                            "Uploaded via Educare",
-                            new String[]{},    // tags, empty for now
-                            "unlisted"         // privacy
-                    );
-
-                    // Upload thumbnail if provided
-                    if (thumbnail != null && !thumbnail.isEmpty()) {
-                        youtubeUploadService.uploadThumbnail(videoId, thumbnail);
+                    // Detect file type from MIME type
+                    String contentType = part.getContentType(); // e.g., "video/mp4", "application/pdf"
+                    if (contentType == null) {
+                        return ResponseEntity.badRequest().body(ApiResponse.error("Cannot determine file type"));
                     }
 
-                    url = "https://youtu.be/" + videoId;
+                    String detected = UploadFileTypes.fileType(contentType);
+                    if (detected == null) {
+                        return ResponseEntity.badRequest().body(ApiResponse.error("Unsupported file type: " + contentType));
+                    }
 
-                    // Optional: delete temp file
-                    Files.deleteIfExists(Paths.get(tempFilePath));
+                    if (detected.equals("VIDEO")) {
+                        if (!UploadFileTypes.SUPPORTED_VIDEO_EXTENSIONS.contains(UploadFileTypes.extension(filename))) {
+                            return ResponseEntity.badRequest().body(ApiResponse.error("Unsupported video format"));
+                        }
+                        // Staged next to the blob store; the publishing job reads it once
+                        stagedVideo = fileStorageService.stageTemp(part.getBody());
+                        videoTitle = filename;
+                    } else {
+                        url = saveToFileSystem(filename, part.getBody());
+                    }
+                    fileType = detected;
+                }
+            }
 
-                    // String fakeYoutubeId = UUID.randomUUID().toString().substring(0, 8);
-                    // url = "https://youtu.be/" + fakeYoutubeId;
-                    fileType = "VIDEO";
+            if (fileType == null) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("No file provided"));
+            }
 
-                } else if (contentType.equals("application/pdf")) {
-                    fileType = "PDF";
-                    url = saveToFileSystem(file);
+            Map<String, String> responseData = new HashMap<>();
+            responseData.put("fileType", fileType);
 
-                } else if (contentType.equals("application/vnd.ms-powerpoint") ||
-                        contentType.equals("application/vnd.openxmlformats-officedocument.presentationml.presentation")) {
-                    fileType = "PPT";
-                    url = saveToFileSystem(file);
+            if (stagedVideo != null && localVideoStore.isEnabled()) {
+                String filename = localVideoStore.store(stagedVideo, videoTitle);
+                stagedVideo = null;
 
-                } else if (contentType.equals("application/msword") ||
-                        contentType.equals("application/vnd.openxmlformats-officedocument.wordprocessingml.document")) {
-                    fileType = "DOC";
-                    url = saveToFileSystem(file);
+                responseData.put("url", baseUrl + "/uploads/" + filename);
+                return ResponseEntity.ok(ApiResponse.ok("File uploaded successfully", responseData));
+            }
 
-                } else {
-                    return ResponseEntity.badRequest().body(ApiResponse.error("Unsupported file type: " + contentType));
+            if (stagedVideo != null) {
+                if (thumbnail != null && thumbnail.length > 0) {
+                    if (thumbnailType == null || !THUMBNAIL_TYPES.contains(thumbnailType)) {
+                        return ResponseEntity.badRequest().body(ApiResponse.error("Invalid thumbnail format. Allowed: JPG, PNG, GIF"));
+                    }
+                    if (thumbnail.length > MAX_THUMBNAIL_BYTES) {
+                        return ResponseEntity.badRequest().body(ApiResponse.error("Thumbnail too large. Max 2MB allowed."));
+                    }
                 }
-            } else {
-                return ResponseEntity.badRequest().body(ApiResponse.error("Cannot determine file type"));
+
+                // Published to YouTube (unlisted) in the background; the job now owns the file
+                VideoPublishJob job = videoPublishService.submit(
+                        currentUser, stagedVideo, videoTitle, thumbnail, thumbnailType);
+                stagedVideo = null;
+
+                responseData.put("jobId", String.valueOf(job.getId()));
+                responseData.put("status", job.getStatus());
+                return ResponseEntity.accepted().body(ApiResponse.ok("Video queued for publishing", responseData));
             }
 
-            Map<String, String> responseData = new HashMap<>();
-            responseData.put("fileType", fileType);
             responseData.put("url", url);
 
             return ResponseEntity.ok(ApiResponse.ok("File uploaded successfully", responseData));
 
+        } catch (TaskRejectedException e) {
+            throw e; // 503 with Retry-After from GlobalExceptionHandler
+        } catch (MultipartStreamReader.SizeLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(ApiResponse.error("File upload failed: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body(ApiResponse.error("File upload failed: " + e.getMessage()));
+        } finally {
+            if (stagedVideo != null) {
+                try {
+                    Files.deleteIfExists(stagedVideo);
+                } catch (IOException ignored) {
+                    // left for the next .tmp cleanup
+                }
+            }
         }
     }
 
     // Helper method to save file
-    private String saveToFileSystem(MultipartFile file) throws IOException {
-        String filename = System.currentTimeMillis() + "-" + file.getOriginalFilename();
-        Path path = Paths.get(uploadDir, filename);
-        Files.createDirectories(path.getParent());
-        Files.copy(file.getInputStream(), path, StandardCopyOption.REPLACE_EXISTING);
+    private String saveToFileSystem(String originalFilename, InputStream in) throws IOException {
+        String filename = fileStorageService.publicName(originalFilename);
+        UploadMetadata stored = fileStorageService.store(filename, in);
+        imageVariantService.prepare(stored); // course covers get resized copies in the background
         return baseUrl + "/uploads/" + filename;
     }
 
@@ -0,0 +1,27 @@
+package com.educare.controller;
+
+import com.educare.dto.ApiResponse;
+import com.educare.dto.VideoPublishJobResponse;
+import com.educare.entity.User;
+import com.educare.service.VideoPublishService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/teacher/video-jobs")
+@RequiredArgsConstructor
+public class VideoJobController {
+
+    private final VideoPublishService videoPublishService;
+
+    // Polled by the client after an upload until the job is SUCCEEDED or FAILED
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<VideoPublishJobResponse>> getJob(
+            @PathVariable Long jobId,
+            @AuthenticationPrincipal User currentUser) {
+        VideoPublishJobResponse job = videoPublishService.getJob(jobId, currentUser);
+        return ResponseEntity.ok(ApiResponse.ok("Video job fetched", job));
+    }
+}
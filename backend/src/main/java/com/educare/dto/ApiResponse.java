@@ -1,10 +1,13 @@
 package com.educare.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.Builder;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,6 +17,10 @@ public class ApiResponse<T> {
     private String msg;
     private T data;
 
+    // Set on list responses that have another page; pass back as ?cursor=
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     // OK with data
     public static <T> ApiResponse<T> ok(String msg, T data) {
         ApiResponse<T> response = new ApiResponse<>();
@@ -32,6 +39,13 @@ public class ApiResponse<T> {
         return response;
     }
 
+    // OK with one page of a list
+    public static <T> ApiResponse<List<T>> page(String msg, CursorPage<T> page) {
+        ApiResponse<List<T>> response = ok(msg, page.getItems());
+        response.setNextCursor(page.getNextCursor());
+        return response;
+    }
+
     // Error
     public static <T> ApiResponse<T> error(String msg) {
         ApiResponse<T> response = new ApiResponse<>();
@@ -0,0 +1,49 @@
+package com.educare.dto;
+
+import com.educare.entity.CourseContent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Course content as returned by the API; the course is referenced by id only.
+ * Built straight from JPQL constructor queries (see CourseContentRepository),
+ * so keep the field order in step with those queries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseContentResponse {
+    private Long id;
+    private Long courseId;
+    private String title;
+    private String fileType; // VIDEO, PPT, PDF, DOC
+    private String fileUrl;
+    private Integer durationSeconds;
+    private boolean isFree; // serialised as "free", like the entity
+    private LocalDateTime createdAt;
+    private Integer videoWidth;
+    private Integer videoHeight;
+    private String videoCodec;
+    private Long bitrate; // bits per second
+
+    public static CourseContentResponse from(CourseContent content) {
+        return new CourseContentResponse(
+                content.getId(),
+                content.getCourse().getId(),
+                content.getTitle(),
+                content.getFileType(),
+                content.getFileUrl(),
+                content.getDurationSeconds(),
+                content.isFree(),
+                content.getCreatedAt(),
+                content.getVideoWidth(),
+                content.getVideoHeight(),
+                content.getVideoCodec(),
+                content.getBitrate());
+    }
+}
@@ -0,0 +1,45 @@
+package com.educare.dto;
+
+import com.educare.entity.Course;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Course as returned by the API. Built straight from a JPQL constructor query
+ * (see CourseRepository), so keep the field order in step with those queries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private BigDecimal price;
+    private boolean isPublished; // serialised as "published", like the entity
+    private String imageUrl;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long teacherId;
+    private String teacherName;
+
+    public static CourseResponse from(Course course) {
+        return new CourseResponse(
+                course.getId(),
+                course.getTitle(),
+                course.getDescription(),
+                course.getPrice(),
+                course.isPublished(),
+                course.getImageUrl(),
+                course.getCreatedAt(),
+                course.getUpdatedAt(),
+                course.getTeacher().getId(),
+                course.getTeacher().getName());
+    }
+}
@@ -0,0 +1,22 @@
+package com.educare.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class CreateUploadSessionRequest {
+
+    @NotBlank
+    private String filename;
+
+    @NotBlank
+    private String contentType; // e.g. video/mp4, application/pdf
+
+    @NotNull
+    @Positive
+    private Long size; // total bytes
+
+    private Integer chunkSize; // optional, server default when null
+}
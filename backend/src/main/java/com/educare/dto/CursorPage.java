@@ -0,0 +1,31 @@
+package com.educare.dto;
+
+import com.educare.util.PageCursors;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a keyset-paginated list. {@code nextCursor} is null on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Builds a page from a query that fetched up to {@code limit + 1} rows in key
+     * order; the extra row only signals that another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, ToLongFunction<T> key) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(items, PageCursors.encode(key.applyAsLong(items.get(limit - 1))));
+    }
+}
@@ -0,0 +1,31 @@
+package com.educare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the teacher dashboard: a course with its activity totals.
+ * Built by a JPQL constructor query (see CourseRepository.findTeacherStats),
+ * so keep the field order in step with it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TeacherCourseStatsResponse {
+    private Long id;
+    private String title;
+    private BigDecimal price;
+    private boolean isPublished; // serialised as "published", like CourseResponse
+    private String imageUrl;
+    private LocalDateTime updatedAt;
+    private long enrollmentCount;
+    private long contentCount;
+    private long totalVideoSeconds;
+    private LocalDateTime latestNoteAt; // null when the course has no notes yet
+}
@@ -0,0 +1,24 @@
+package com.educare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionResponse {
+    private String uploadId;
+    private String filename;
+    private long size;
+    private int chunkSize;
+    private int chunkCount;
+    private List<Long> receivedOffsets; // start offsets of chunks already stored
+    private boolean complete;
+    private LocalDateTime expiresAt;
+}
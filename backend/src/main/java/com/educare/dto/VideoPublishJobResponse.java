@@ -0,0 +1,29 @@
+package com.educare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VideoPublishJobResponse {
+    private Long id;
+    private String title;
+    private String status;
+    private int progressPercent;
+    private int attempts;
+    private String url; // set once status is SUCCEEDED
+    private String error;
+    private Integer durationSeconds;
+    private Integer videoWidth;
+    private Integer videoHeight;
+    private String videoCodec;
+    private Long bitrate; // bits per second
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -13,10 +13,12 @@ import java.time.LocalDateTime;
 public class CourseContent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled ids (sequence stepped by 50 in schema.sql) so Hibernate can batch the inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_contents_seq")
+    @SequenceGenerator(name = "course_contents_seq", sequenceName = "course_contents_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
 
@@ -31,6 +33,13 @@ public class CourseContent {
 
     private Integer durationSeconds;
 
+    // Videos only, copied from the publishing job that produced fileUrl
+    private Integer videoWidth;
+    private Integer videoHeight;
+    @Column(length = 20)
+    private String videoCodec;
+    private Long bitrate;
+
     @Builder.Default
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -1,10 +1,12 @@
 package com.educare.entity;
 
+import com.educare.service.EntitlementListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(EntitlementListener.class) // keeps the entitlement bitmaps in step
 @Table(
     name = "enrollments",
     uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id"})
@@ -16,7 +18,8 @@ import java.time.LocalDateTime;
 public class Enrollment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollments_seq")
+    @SequenceGenerator(name = "enrollments_seq", sequenceName = "enrollments_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,7 +16,8 @@ import java.util.List;
 public class Note {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_seq")
+    @SequenceGenerator(name = "notes_seq", sequenceName = "notes_id_seq", allocationSize = 50)
     private Long id;
 
     // The course this note belongs to
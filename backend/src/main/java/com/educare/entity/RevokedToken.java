@@ -0,0 +1,27 @@
+package com.educare.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    // SHA-256 of the compact JWT; the token itself is never stored
+    @Id
+    @Column(length = 64)
+    private String tokenDigest;
+
+    // When the token would have expired anyway; the row is useless after that
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private LocalDateTime revokedAt = LocalDateTime.now();
+}
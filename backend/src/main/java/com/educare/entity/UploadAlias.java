@@ -0,0 +1,25 @@
+package com.educare.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "upload_aliases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadAlias {
+
+    // Public file name as it appears in /uploads/{name} URLs
+    @Id
+    @Column(length = 500)
+    private String name;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
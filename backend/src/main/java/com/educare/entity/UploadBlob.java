@@ -0,0 +1,29 @@
+package com.educare.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "upload_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadBlob {
+
+    // Hex SHA-256 of the file body; also the blob's file name on disk
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long size;
+
+    // Number of aliases pointing at this blob
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -1,5 +1,6 @@
 package com.educare.entity;
 
+import com.educare.security.UserCacheInvalidator;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.security.core.GrantedAuthority;
@@ -10,6 +11,7 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
+@EntityListeners(UserCacheInvalidator.class) // keeps the principal cache in step with role changes and deletes
 @Data
 @Table(name = "users")
 @Getter
@@ -20,7 +22,8 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 150)
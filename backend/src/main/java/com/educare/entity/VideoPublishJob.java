@@ -0,0 +1,73 @@
+package com.educare.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "video_publish_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VideoPublishJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String UPLOADING = "UPLOADING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "video_publish_jobs_seq")
+    @SequenceGenerator(name = "video_publish_jobs_seq", sequenceName = "video_publish_jobs_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId; // teacher who uploaded the video
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    // Staged files, removed once the job finishes either way
+    @Column(columnDefinition = "TEXT")
+    private String stagedPath;
+
+    @Column(columnDefinition = "TEXT")
+    private String thumbnailPath;
+
+    @Column(length = 50)
+    private String thumbnailContentType;
+
+    @Column(nullable = false, length = 20)
+    private String status; // QUEUED, UPLOADING, SUCCEEDED, FAILED
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int progressPercent = 0;
+
+    @Column(length = 50)
+    private String videoId;
+
+    @Column(columnDefinition = "TEXT")
+    private String url;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    // Read from the MP4/MOV header when the job is submitted; null if unknown
+    private Integer durationSeconds;
+    private Integer videoWidth;
+    private Integer videoHeight;
+    @Column(length = 20)
+    private String videoCodec;
+    private Long bitrate;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
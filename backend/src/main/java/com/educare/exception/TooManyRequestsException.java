@@ -0,0 +1,17 @@
+package com.educare.exception;
+
+import lombok.Getter;
+
+/**
+ * A client went over a rate limit checked in application code; answered with 429.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,15 @@
+package com.educare.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after the transaction that dropped a blob's last alias commits and its
+ * files are gone, so anything derived from those bytes can be forgotten.
+ */
+@Getter
+@AllArgsConstructor
+public class BlobDeletedEvent {
+
+    private final String sha256;
+}
@@ -0,0 +1,16 @@
+package com.educare.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A student's right to a course's paid content, as read by JPQL constructor
+ * queries when the entitlement index is loaded.
+ */
+@Getter
+@AllArgsConstructor
+public class Entitlement {
+
+    private final Long courseId;
+    private final Long studentId;
+}
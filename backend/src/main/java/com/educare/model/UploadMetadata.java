@@ -0,0 +1,27 @@
+package com.educare.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Cached facts about a stored upload, enough to answer conditional requests
+ * without touching the file.
+ */
+@Getter
+@AllArgsConstructor
+public class UploadMetadata {
+
+    private final String filename;
+    private final Path path;
+    private final long size;
+    private final long lastModified; // epoch millis
+    private final String contentType;
+    private final String sha256; // hex digest of the file body
+
+    // Strong validator, changes only when the bytes change
+    public String getEtag() {
+        return "\"" + sha256 + "\"";
+    }
+}
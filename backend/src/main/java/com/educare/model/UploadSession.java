@@ -0,0 +1,68 @@
+package com.educare.model;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * State of one resumable upload: the file the chunks are written into and
+ * which fixed-size chunks have fully arrived.
+ */
+@Getter
+public class UploadSession {
+
+    private final String id;
+    private final Long ownerId;
+    private final String filename;
+    private final String contentType;
+    private final long size;
+    private final int chunkSize;
+    private final Path file;
+
+    private final BitSet received = new BitSet();
+    private volatile long expiresAt;
+
+    public UploadSession(String id, Long ownerId, String filename, String contentType,
+                         long size, int chunkSize, Path file, long expiresAt) {
+        this.id = id;
+        this.ownerId = ownerId;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.size = size;
+        this.chunkSize = chunkSize;
+        this.file = file;
+        this.expiresAt = expiresAt;
+    }
+
+    public int getChunkCount() {
+        return (int) ((size + chunkSize - 1) / chunkSize);
+    }
+
+    // Expected length of a chunk; only the last one may be short
+    public long chunkLength(int index) {
+        return Math.min(chunkSize, size - (long) index * chunkSize);
+    }
+
+    public synchronized void markReceived(int index) {
+        received.set(index);
+    }
+
+    public synchronized boolean isComplete() {
+        return received.cardinality() == getChunkCount();
+    }
+
+    public synchronized List<Long> getReceivedOffsets() {
+        List<Long> offsets = new ArrayList<>(received.cardinality());
+        for (int i = received.nextSetBit(0); i >= 0; i = received.nextSetBit(i + 1)) {
+            offsets.add((long) i * chunkSize);
+        }
+        return offsets;
+    }
+
+    public void touch(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,20 @@
+package com.educare.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Facts read from an MP4/MOV header at ingestion. Any field may be null when the
+ * file does not carry it (e.g. an audio-only file has no width or video codec).
+ */
+@Getter
+@AllArgsConstructor
+public class VideoMetadata {
+
+    private final Integer durationSeconds; // rounded to the nearest second
+    private final Integer width;
+    private final Integer height;
+    private final String videoCodec; // sample entry fourcc, e.g. avc1, hvc1, av01
+    private final String audioCodec; // e.g. mp4a
+    private final Long bitrate; // average over the whole file, bits per second
+}
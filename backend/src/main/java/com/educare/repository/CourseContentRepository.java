@@ -1,36 +1,68 @@
 package com.educare.repository;
 
+import com.educare.dto.CourseContentResponse;
 import com.educare.entity.CourseContent;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.Query;
 
 @Repository
 public interface CourseContentRepository extends JpaRepository<CourseContent, Long> {
-    
-   @Query("""
-        SELECT cc
+
+    // Content columns only; cc.course.id is read from the foreign key without a join
+    String CONTENT_RESPONSE = """
+        SELECT new com.educare.dto.CourseContentResponse(
+            cc.id, cc.course.id, cc.title, cc.fileType, cc.fileUrl,
+            cc.durationSeconds, cc.isFree, cc.createdAt,
+            cc.videoWidth, cc.videoHeight, cc.videoCodec, cc.bitrate)
         FROM CourseContent cc
+    """;
+
+    // What a student without an entitlement may open: free items, or everything in a free course
+    @Query(CONTENT_RESPONSE + """
         JOIN cc.course c
         WHERE c.id = :courseId
-        AND (
-            cc.isFree = true
-            OR c.price = 0
-            OR (c.price > 0 AND EXISTS (
-                SELECT 1 FROM Payment p
-                WHERE p.course = c
-                AND p.student.id = :studentId
-                AND p.status = 'SUCCESS'
-            ))
-        )
+        AND cc.id > :after
+        AND (cc.isFree = true OR c.price = 0)
         ORDER BY cc.id
     """)
-    List<CourseContent> findAccessibleContentsForStudent(@Param("studentId") Long studentId,
-                                                        @Param("courseId") Long courseId);
+    List<CourseContentResponse> findFreeResponsesByCourseId(@Param("courseId") Long courseId,
+                                                            @Param("after") long after,
+                                                            Limit limit);
 
 
     // Teacher/admin query: no restriction
     List<CourseContent> findByCourseId(Long courseId);
+
+    // Keyset page of a course's content (idx_course_contents_course_id)
+    @Query(CONTENT_RESPONSE + " WHERE cc.course.id = :courseId AND cc.id > :after ORDER BY cc.id")
+    List<CourseContentResponse> findResponsesByCourseId(@Param("courseId") Long courseId,
+                                                        @Param("after") long after,
+                                                        Limit limit);
+
+    @Query(CONTENT_RESPONSE + " WHERE cc.id = :id")
+    Optional<CourseContentResponse> findResponseById(@Param("id") Long id);
+
+    @Query(CONTENT_RESPONSE + " JOIN cc.course c WHERE cc.id = :id AND (cc.isFree = true OR c.price = 0)")
+    Optional<CourseContentResponse> findFreeResponseById(@Param("id") Long id);
+
+    // Content of a published course, or empty if either check fails
+    @Query(CONTENT_RESPONSE + " WHERE cc.id = :contentId AND cc.course.id = :courseId AND cc.course.isPublished = true")
+    Optional<CourseContentResponse> findPublishedResponse(@Param("courseId") Long courseId,
+                                                          @Param("contentId") Long contentId);
+
+    // As findPublishedResponse, limited to what a student without an entitlement may open
+    @Query(CONTENT_RESPONSE + """
+        JOIN cc.course c
+        WHERE cc.id = :contentId
+        AND c.id = :courseId
+        AND c.isPublished = true
+        AND (cc.isFree = true OR c.price = 0)
+    """)
+    Optional<CourseContentResponse> findFreePublishedResponse(@Param("courseId") Long courseId,
+                                                              @Param("contentId") Long contentId);
 }
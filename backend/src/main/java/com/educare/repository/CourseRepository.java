@@ -1,14 +1,62 @@
 package com.educare.repository;
 
+import com.educare.dto.CourseResponse;
+import com.educare.dto.TeacherCourseStatsResponse;
 import com.educare.entity.Course;
 import com.educare.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 import java.util.Optional;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    // Only the columns the API returns; the teacher contributes its id and name
+    String COURSE_RESPONSE = """
+        SELECT new com.educare.dto.CourseResponse(
+            c.id, c.title, c.description, c.price, c.isPublished, c.imageUrl,
+            c.createdAt, c.updatedAt, t.id, t.name)
+        FROM Course c
+        JOIN c.teacher t
+    """;
+
     List<Course> findByTeacher(User teacher);
     List<Course> findByIsPublishedTrue();
 
     Optional<Course> findByIdAndIsPublishedTrue(Long id);
+
+    boolean existsByIdAndIsPublishedTrue(Long id);
+
+    boolean existsByIdAndTeacherId(Long id, Long teacherId);
+
+    // Keyset pages: rows after the cursor id, in id order (primary key / idx_courses_published_id)
+    @Query(COURSE_RESPONSE + " WHERE c.id > :after ORDER BY c.id")
+    List<CourseResponse> findResponsesAfter(@Param("after") long after, Limit limit);
+
+    @Query(COURSE_RESPONSE + " WHERE c.isPublished = true AND c.id > :after ORDER BY c.id")
+    List<CourseResponse> findPublishedResponsesAfter(@Param("after") long after, Limit limit);
+
+    @Query(COURSE_RESPONSE + " WHERE c.id = :id")
+    Optional<CourseResponse> findResponseById(@Param("id") Long id);
+
+    @Query(COURSE_RESPONSE + " WHERE c.id = :id AND c.isPublished = true")
+    Optional<CourseResponse> findPublishedResponseById(@Param("id") Long id);
+
+    // Teacher dashboard in one statement; each total is a correlated subquery on a course_id index
+    @Query("""
+        SELECT new com.educare.dto.TeacherCourseStatsResponse(
+            c.id, c.title, c.price, c.isPublished, c.imageUrl, c.updatedAt,
+            (SELECT COUNT(e) FROM Enrollment e WHERE e.course = c),
+            (SELECT COUNT(cc) FROM CourseContent cc WHERE cc.course = c),
+            (SELECT COALESCE(SUM(v.durationSeconds), 0L) FROM CourseContent v
+                WHERE v.course = c AND v.fileType = 'VIDEO'),
+            (SELECT MAX(n.createdAt) FROM Note n WHERE n.course = c))
+        FROM Course c
+        WHERE c.teacher.id = :teacherId
+        ORDER BY c.id
+    """)
+    List<TeacherCourseStatsResponse> findTeacherStats(@Param("teacherId") Long teacherId);
 }
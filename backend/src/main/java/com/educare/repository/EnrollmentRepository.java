@@ -1,9 +1,14 @@
 package com.educare.repository;
 
+import com.educare.dto.EnrollmentResponse;
 import com.educare.entity.Enrollment;
 import com.educare.entity.Course;
 import com.educare.entity.User;
+import com.educare.model.Entitlement;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.List;
@@ -13,4 +18,23 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
     List<Enrollment> findByCourseId(Long courseId);
 
+    // Foreign keys only, no joins
+    @Query("SELECT new com.educare.model.Entitlement(e.course.id, e.student.id) FROM Enrollment e")
+    List<Entitlement> findAllEntitlements();
+
+    // Keyset page of a course's enrollments in one query (idx_enrollments_course_id)
+    @Query("""
+        SELECT new com.educare.dto.EnrollmentResponse(
+            e.id, s.id, s.name, c.id, c.title, g.id, g.name, e.enrolledAt)
+        FROM Enrollment e
+        JOIN e.student s
+        JOIN e.course c
+        LEFT JOIN e.accessGrantedBy g
+        WHERE c.id = :courseId AND e.id > :after
+        ORDER BY e.id
+    """)
+    List<EnrollmentResponse> findResponsesByCourseId(@Param("courseId") Long courseId,
+                                                     @Param("after") long after,
+                                                     Limit limit);
+
 }
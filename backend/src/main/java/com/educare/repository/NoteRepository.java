@@ -1,17 +1,33 @@
 package com.educare.repository;
 
 import com.educare.entity.Note;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.EntityGraph;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
-    @EntityGraph(attributePaths = {"replies", "replies.user", "user"})
-    // Fetch main notes for a course (parentNoteId is null)
-    List<Note> findByCourseIdAndParentNoteIsNull(Long courseId);
+    // Keyset page of main notes for a course (parentNote is null), idx_notes_course_main.
+    // Replies are fetched separately: a collection fetch here would make Hibernate page in memory.
+    @EntityGraph(attributePaths = {"user"})
+    @Query("""
+        SELECT n FROM Note n
+        WHERE n.course.id = :courseId AND n.parentNote IS NULL AND n.id > :after
+        ORDER BY n.id
+    """)
+    List<Note> findMainNotesAfter(@Param("courseId") Long courseId,
+                                  @Param("after") long after,
+                                  Limit limit);
+
+    // Replies to a page of notes, with their authors, in one query
+    @Query("SELECT r FROM Note r JOIN FETCH r.user WHERE r.parentNote.id IN :parentIds ORDER BY r.id")
+    List<Note> findRepliesWithUser(@Param("parentIds") Collection<Long> parentIds);
 
     // Fetch replies for a parent note
     List<Note> findByParentNoteId(Long parentNoteId);
@@ -0,0 +1,17 @@
+package com.educare.repository;
+
+import com.educare.entity.Payment;
+import com.educare.model.Entitlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    boolean existsByCourseIdAndStudentIdAndStatus(Long courseId, Long studentId, String status);
+
+    // Foreign keys only, no joins
+    @Query("SELECT new com.educare.model.Entitlement(p.course.id, p.student.id) FROM Payment p WHERE p.status = 'SUCCESS'")
+    List<Entitlement> findPaidEntitlements();
+}
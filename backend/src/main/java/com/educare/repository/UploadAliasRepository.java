@@ -0,0 +1,7 @@
+package com.educare.repository;
+
+import com.educare.entity.UploadAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UploadAliasRepository extends JpaRepository<UploadAlias, String> {
+}
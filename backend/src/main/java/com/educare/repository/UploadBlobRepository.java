@@ -0,0 +1,28 @@
+package com.educare.repository;
+
+import com.educare.entity.UploadBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface UploadBlobRepository extends JpaRepository<UploadBlob, String> {
+
+    // Atomic insert-or-increment so concurrent uploads of the same file never race
+    @Modifying
+    @Query(value = """
+        INSERT INTO upload_blobs (sha256, size, ref_count, created_at)
+        VALUES (:sha256, :size, 1, CURRENT_TIMESTAMP)
+        ON CONFLICT (sha256) DO UPDATE SET ref_count = upload_blobs.ref_count + 1
+    """, nativeQuery = true)
+    void acquire(@Param("sha256") String sha256, @Param("size") long size);
+
+    @Modifying
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount - 1 WHERE b.sha256 = :sha256")
+    int release(@Param("sha256") String sha256);
+
+    // Returns 1 if the blob was unreferenced and its row is now gone
+    @Modifying
+    @Query("DELETE FROM UploadBlob b WHERE b.sha256 = :sha256 AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("sha256") String sha256);
+}
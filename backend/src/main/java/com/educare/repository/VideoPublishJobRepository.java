@@ -0,0 +1,14 @@
+package com.educare.repository;
+
+import com.educare.entity.VideoPublishJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface VideoPublishJobRepository extends JpaRepository<VideoPublishJob, Long> {
+    List<VideoPublishJob> findByStatusIn(Collection<String> statuses);
+
+    Optional<VideoPublishJob> findFirstByUrlAndStatusOrderByIdDesc(String url, String status);
+}
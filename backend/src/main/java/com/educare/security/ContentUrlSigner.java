@@ -0,0 +1,162 @@
+package com.educare.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Short-lived signed links to course files under /uploads/. A signed URL carries the
+ * course and content id, an expiry (epoch seconds) and an HMAC-SHA256 over all of
+ * them plus the path, so the file handler can authorise a download with one MAC and
+ * no database, session or token lookup. Every instance must share app.content-url.secret;
+ * outside the dev profile the application refuses to start without one while links are enforced.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentUrlSigner {
+
+    public static final String COURSE_PARAM = "course";
+    public static final String CONTENT_PARAM = "content";
+    public static final String EXPIRES_PARAM = "expires";
+    public static final String SIGNATURE_PARAM = "sig";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String UPLOADS = "/uploads/";
+
+    @Value("${app.content-url.secret:}")
+    private String secret;
+
+    @Value("${app.content-url.ttl:PT1H}")
+    private Duration ttl;
+
+    // Assumed length of a video whose duration is unknown
+    @Value("${app.content-url.max-media-duration:PT4H}")
+    private Duration maxMediaDuration;
+
+    @Value("${app.content-url.enforce:true}")
+    private boolean enforce;
+
+    private final Environment environment;
+
+    private SecretKeySpec key;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // A per-process key breaks every link on restart and on every other instance
+            if (enforce && !environment.matchesProfiles("dev")) {
+                throw new IllegalStateException(
+                        "app.content-url.secret must be set when app.content-url.enforce=true");
+            }
+            log.warn("app.content-url.secret is not set; using a random per-process key (dev only)");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    /**
+     * Returns {@code fileUrl} with a fresh signature if it points at /uploads/;
+     * anything else (YouTube links, external URLs) is returned unchanged.
+     */
+    public String sign(String fileUrl, Long courseId, Long contentId) {
+        return sign(fileUrl, courseId, contentId, Duration.ZERO);
+    }
+
+    /**
+     * Signs a link to a video. Players re-request the file with Range headers all
+     * through playback and each request is verified, so the link lives for the ttl
+     * counted from the end of the video rather than from now.
+     *
+     * @param durationSeconds length of the video, or null if unknown (max-media-duration is assumed)
+     */
+    public String signMedia(String fileUrl, Long courseId, Long contentId, Integer durationSeconds) {
+        Duration playback = durationSeconds != null && durationSeconds > 0
+                ? Duration.ofSeconds(durationSeconds)
+                : maxMediaDuration;
+        return sign(fileUrl, courseId, contentId, playback);
+    }
+
+    private String sign(String fileUrl, Long courseId, Long contentId, Duration extra) {
+        if (fileUrl == null) {
+            return null;
+        }
+        String url = strip(fileUrl);
+        int at = url.indexOf(UPLOADS);
+        if (at < 0) {
+            return url;
+        }
+
+        long expires = System.currentTimeMillis() / 1000 + ttl.toSeconds() + extra.toSeconds();
+        // Signed in decoded form, the way the handler sees the path variable
+        String path = UriUtils.decode(url.substring(at), StandardCharsets.UTF_8);
+        String signature = mac(path, courseId, contentId, expires);
+        return url
+                + "?" + COURSE_PARAM + "=" + courseId
+                + "&" + CONTENT_PARAM + "=" + contentId
+                + "&" + EXPIRES_PARAM + "=" + expires
+                + "&" + SIGNATURE_PARAM + "=" + signature;
+    }
+
+    /**
+     * Drops any query string, so a signed URL sent back by a client is stored bare.
+     */
+    public String strip(String fileUrl) {
+        if (fileUrl == null || !fileUrl.contains(UPLOADS)) {
+            return fileUrl;
+        }
+        int query = fileUrl.indexOf('?');
+        return query < 0 ? fileUrl : fileUrl.substring(0, query);
+    }
+
+    /**
+     * Checks a signed request for {@code path} (e.g. /uploads/123-notes.pdf).
+     * CPU only: parse, compare the expiry, one HMAC, constant-time compare.
+     */
+    public boolean verify(String path, String courseId, String contentId, String expires, String signature) {
+        if (courseId == null || contentId == null || expires == null || signature == null) {
+            return false;
+        }
+        try {
+            long course = Long.parseLong(courseId);
+            long content = Long.parseLong(contentId);
+            long expiry = Long.parseLong(expires);
+            if (expiry < System.currentTimeMillis() / 1000) {
+                return false;
+            }
+            byte[] expected = mac(path, course, content, expiry).getBytes(StandardCharsets.US_ASCII);
+            return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String mac(String path, long courseId, long contentId, long expires) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal((path + "\n" + courseId + "\n" + contentId + "\n" + expires)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+}
@@ -12,7 +12,6 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import com.educare.repository.UserRepository;
 
 import java.io.IOException;
 
@@ -25,7 +24,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService; // your custom UserDetailsServiceImpl
     @Autowired
-    private UserRepository userRepository;
+    private UserPrincipalCache userPrincipalCache;
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,23 +34,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        String email = null;
-        String jwt = null;
+        VerifiedToken token = null;
 
-        // Extract JWT from "Bearer <token>"
+        // Extract JWT from "Bearer <token>"; signature and expiry are checked once here
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+            String jwt = authHeader.substring(7);
             try {
-                email = jwtUtil.extractEmail(jwt); // 👈 use email instead of username
+                token = jwtUtil.verify(jwt);
             } catch (Exception e) {
-                logger.error("JWT extraction failed: " + e.getMessage());
+                logger.error("JWT verification failed: " + e.getMessage());
+            }
+            if (token != null && tokenRevocationStore.isRevoked(token)) {
+                token = null; // logged out
             }
         }
 
-        // Validate & authenticate
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var user = userRepository.findByEmail(email).orElse(null);
-            if (user != null && jwtUtil.isTokenValid(jwt, user.getEmail())) {
+        // Authenticate
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            var user = userPrincipalCache.get(token.getEmail()); // 👈 email is the subject; no query on a cache hit
+            if (user != null) {
 
                 // ✅ Use your actual User entity as the principal
                 UsernamePasswordAuthenticationToken authToken =
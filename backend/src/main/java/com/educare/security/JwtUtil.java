@@ -2,10 +2,18 @@ package com.educare.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
@@ -15,6 +23,17 @@ public class JwtUtil {
 
     private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
 
+    // Immutable and thread-safe once built
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build();
+
+    // Verified tokens by SHA-256 of the compact form, so repeat requests skip the HMAC and JSON parse
+    private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    @Value("${app.jwt.cache-size:10000}")
+    private int cacheSize;
+
     public String generateToken(String email, String role) {
         return Jwts.builder()
                 .setSubject(email) // 👈 email is the unique identifier
@@ -25,27 +44,69 @@ public class JwtUtil {
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        return extractClaims(token).getSubject(); // 👈 this returns email
+    /**
+     * Checks signature and expiry once and returns the claims.
+     *
+     * @throws JwtException             if the token is malformed, forged or expired
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            verified.remove(digest);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        Date issuedAt = claims.getIssuedAt();
+        VerifiedToken result = new VerifiedToken(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                issuedAt != null ? issuedAt.getTime() : 0,
+                expiration.getTime(),
+                digest);
+
+        if (verified.size() >= cacheSize) {
+            evict(now);
+        }
+        verified.put(digest, result);
+        return result;
     }
 
-    public String extractRole(String token) {
-        return extractClaims(token).get("role", String.class);
+    public String extractEmail(String token) {
+        return verify(token).getEmail(); // 👈 this returns email
     }
 
-    public boolean isTokenValid(String token, String email) {
-        return (email.equals(extractEmail(token)) && !isTokenExpired(token));
+    public String extractRole(String token) {
+        return verify(token).getRole();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token).getExpiration().before(new Date());
+    // Drops expired entries; if the cache is still full, makes room for a quarter of it
+    private void evict(long now) {
+        verified.values().removeIf(t -> t.isExpired(now));
+        int excess = verified.size() - cacheSize * 3 / 4;
+        Iterator<String> it = verified.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
     }
 
-    private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,192 @@
+package com.educare.security;
+
+import com.educare.dto.ApiResponse;
+import com.educare.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client admission control, run right after {@link JwtAuthenticationFilter}.
+ * Authenticated requests are counted per user id, anonymous ones per client
+ * address (the real one behind a proxy, via server.forward-headers-strategy).
+ * Each route rule (app.rate-limit.routes, first match wins) allows
+ * {@code capacity} requests per {@code period} with bursts up to {@code capacity}.
+ *
+ * A whole classroom can share one address, so the address limit on /api/auth/** is
+ * generous; guessing against a single account is held back by a separate login limit
+ * per account and address, charged by the login endpoint through {@link #loginFailed}
+ * only when the password was wrong.
+ *
+ * Buckets use the generic cell rate algorithm: the whole bucket is one
+ * "theoretical arrival time" in an AtomicLong, updated with a single CAS, so
+ * there are no locks and a bucket costs a few dozen bytes. A bucket that has
+ * refilled completely carries no information and is dropped by the idle sweep.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final List<Rule> rules;
+    private final Rule loginRule;
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param routes Comma-separated {@code <ant pattern>=<capacity>/<period>} rules,
+     *               e.g. {@code /api/auth/**=20/1m,/**=300/1m}
+     */
+    public RateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.routes:/**=300/1m}") String routes,
+                           @Value("${app.rate-limit.login-per-account:10/1m}") String loginPerAccount,
+                           ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.rules = parseRules(routes);
+        this.loginRule = parseRule(-1, "login", loginPerAccount);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = enabled ? match(request.getRequestURI()) : null;
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = acquire(rule, rule.index + ":" + clientKey(request), System.nanoTime());
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests"));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Counts a failed login for an account from one client address. Returns 0 while
+     * the limit still has room, otherwise seconds until another failure is allowed.
+     * Successful logins are never counted, so someone guessing a teacher's password
+     * cannot keep the teacher out.
+     */
+    public long loginFailed(String account, String clientAddress) {
+        if (!enabled || account == null) {
+            return 0;
+        }
+        String key = "login:" + account.trim().toLowerCase() + "@" + clientAddress;
+        long waitNanos = acquire(loginRule, key, System.nanoTime());
+        return waitNanos > 0 ? Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L) : 0;
+    }
+
+    /**
+     * Takes one token from the bucket. Returns 0 if the request is admitted,
+     * otherwise how long until it would be.
+     */
+    private long acquire(Rule rule, String key, long now) {
+        AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + rule.intervalNanos;
+            long excess = next - now - rule.periodNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Users by id once authenticated; anonymous callers (e.g. /api/auth/**) by client address
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return "u" + user.getId();
+        }
+        return "ip" + request.getRemoteAddr();
+    }
+
+    private Rule match(String path) {
+        for (Rule rule : rules) {
+            if (pathMatcher.match(rule.pattern, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops buckets that have refilled completely; they would behave exactly like
+     * a new bucket, so memory only grows with clients active within one period.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval:PT1M}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(tat -> tat.get() - now <= 0);
+    }
+
+    private static List<Rule> parseRules(String spec) {
+        List<Rule> parsed = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int eq = entry.lastIndexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Invalid rate limit rule: " + entry);
+            }
+            parsed.add(parseRule(parsed.size(), entry.substring(0, eq).trim(), entry.substring(eq + 1)));
+        }
+        return List.copyOf(parsed);
+    }
+
+    // <capacity>/<period>, e.g. 20/1m
+    private static Rule parseRule(int index, String pattern, String rate) {
+        int slash = rate.lastIndexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Invalid rate limit: " + rate);
+        }
+        long capacity = Long.parseLong(rate.substring(0, slash).trim());
+        Duration period = DurationStyle.detectAndParse(rate.substring(slash + 1).trim());
+        if (capacity <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Invalid rate limit: " + rate);
+        }
+        return new Rule(index, pattern, period.toNanos() / capacity, period.toNanos());
+    }
+
+    /**
+     * @param intervalNanos Time to earn back one token
+     * @param periodNanos   Time to refill the whole bucket (capacity * interval)
+     */
+    private record Rule(int index, String pattern, long intervalNanos, long periodNanos) {
+    }
+}
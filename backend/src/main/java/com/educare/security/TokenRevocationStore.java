@@ -0,0 +1,85 @@
+package com.educare.security;
+
+import com.educare.entity.RevokedToken;
+import com.educare.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist of logged-out JWTs. Lookups hit an in-memory map keyed by the token
+ * digest {@link JwtUtil#verify} already computed, so the per-request check is one
+ * hash probe with no allocation and no query. Revocations are written to
+ * revoked_tokens first, reloaded on startup, and pulled in periodically so
+ * logouts on other instances apply here too. An entry is dropped once the token
+ * it names has expired, since the token is rejected by then anyway.
+ */
+@Slf4j
+@Component
+public class TokenRevocationStore {
+
+    // Revocations written by other instances may commit slightly out of order
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>(); // digest -> expiry, epoch millis
+    private volatile LocalDateTime lastSync = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public TokenRevocationStore(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        return revoked.containsKey(token.getDigest());
+    }
+
+    public void revoke(VerifiedToken token) {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenDigest(token.getDigest())
+                .expiresAt(toDateTime(token.getExpiresAt()))
+                .build());
+        revoked.put(token.getDigest(), token.getExpiresAt());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        sync();
+    }
+
+    /**
+     * Pulls in revocations made since the last run and forgets expired ones.
+     */
+    @Scheduled(fixedDelayString = "${app.auth.revocation-sync-interval:PT30S}", initialDelayString = "${app.auth.revocation-sync-interval:PT30S}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastSync, now);
+            for (RevokedToken token : recent) {
+                revoked.put(token.getTokenDigest(),
+                        token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            lastSync = now.minusSeconds(SYNC_OVERLAP_SECONDS);
+
+            long nowMillis = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+            revokedTokenRepository.deleteExpired(now);
+        } catch (RuntimeException e) {
+            // the in-memory set stays authoritative for local logouts; retried on the next run
+            log.warn("Token revocation sync failed: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
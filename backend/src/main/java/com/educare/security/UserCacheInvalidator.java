@@ -0,0 +1,44 @@
+package com.educare.security;
+
+import com.educare.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User} that drops changed or deleted users from the
+ * {@link UserPrincipalCache}, so role changes and deletes take effect on the next
+ * request. Bulk JPQL/SQL updates bypass entity listeners; they are only picked up
+ * when the cache entry expires.
+ */
+@Component
+public class UserCacheInvalidator {
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    public UserCacheInvalidator(@Lazy UserPrincipalCache userPrincipalCache) {
+        this.userPrincipalCache = userPrincipalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        Long id = user.getId();
+        userPrincipalCache.evict(id);
+        userPrincipalCache.evict(user.getEmail());
+
+        // A request between flush and commit may have re-read the old row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    userPrincipalCache.evict(id);
+                    userPrincipalCache.evict(user.getEmail());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.educare.security;
+
+import com.educare.entity.User;
+import com.educare.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Users as seen by request authentication, kept in memory so a request with a
+ * known token needs no query. Entries live for app.auth.principal-ttl and are
+ * dropped early when the user row is updated or deleted through JPA
+ * (see {@link UserCacheInvalidator}).
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private final Map<Long, String> emailById = new ConcurrentHashMap<>();
+
+    @Value("${app.auth.principal-ttl:PT5M}")
+    private Duration ttl;
+
+    @Value("${app.auth.principal-cache-size:10000}")
+    private int maxSize;
+
+    public UserPrincipalCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Returns the user with this email, or null if there is none. Each call gets its
+     * own copy, so a caller changing its principal cannot leak into other requests.
+     */
+    public User get(String email) {
+        long now = System.currentTimeMillis();
+        Entry entry = byEmail.get(email);
+        if (entry == null || entry.expiresAt <= now) {
+            User user = userRepository.findByEmail(email).orElse(null);
+            if (user == null) {
+                evict(email);
+                return null;
+            }
+            if (byEmail.size() >= maxSize) {
+                trim(now);
+            }
+            entry = new Entry(copy(user), now + ttl.toMillis());
+            byEmail.put(email, entry);
+            emailById.put(user.getId(), email);
+        }
+        return copy(entry.user);
+    }
+
+    public void evict(String email) {
+        Entry entry = byEmail.remove(email);
+        if (entry != null) {
+            emailById.remove(entry.user.getId());
+        }
+    }
+
+    public void evict(Long userId) {
+        String email = emailById.remove(userId);
+        if (email != null) {
+            byEmail.remove(email);
+        }
+    }
+
+    // Drops expired entries; if still full, makes room for a quarter of the cache
+    private void trim(long now) {
+        byEmail.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt <= now;
+            if (expired) {
+                emailById.remove(e.getValue().user.getId());
+            }
+            return expired;
+        });
+        int excess = byEmail.size() - maxSize * 3 / 4;
+        Iterator<Entry> it = byEmail.values().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            emailById.remove(it.next().user.getId());
+            it.remove();
+        }
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .passwordHash(user.getPasswordHash())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.educare.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked. Immutable, so
+ * one instance can be shared by every request presenting the same token.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final String email; // subject
+    private final String role;
+    private final long issuedAt;  // epoch millis
+    private final long expiresAt; // epoch millis
+    private final String digest;  // SHA-256 of the compact token, identifies it for revocation
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
@@ -4,43 +4,77 @@ import com.educare.dto.*;
 import com.educare.entity.User;
 import com.educare.repository.UserRepository;
 import com.educare.security.JwtUtil;
+import com.educare.security.TokenRevocationStore;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationStore tokenRevocationStore;
 
-    public User register(RegisterRequest request) {
+    /**
+     * Registers a user; the password is hashed on the hashing pool.
+     *
+     * @throws TaskRejectedException if the hashing pool is saturated
+     */
+    public CompletableFuture<User> register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already registered");
         }
 
-        User user = User.builder()
-                .name(request.getName())
-                .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
-                .role(request.getRole().toUpperCase())
-                .build();
-
-        return userRepository.save(user);
+        return passwordHashingService.encode(request.getPassword())
+                .thenApply(hash -> userRepository.save(User.builder()
+                        .name(request.getName())
+                        .email(request.getEmail())
+                        .passwordHash(hash)
+                        .role(request.getRole().toUpperCase())
+                        .build()));
     }
 
-    public LoginResponse login(LoginRequest request) {
+    /**
+     * Checks credentials on the hashing pool and issues a token. A hash made with a
+     * lower BCrypt cost than configured is replaced while the password is at hand.
+     *
+     * @throws TaskRejectedException if the hashing pool is saturated
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new RuntimeException("Invalid credentials");
-        }
+        return passwordHashingService.verify(request.getPassword(), user.getPasswordHash())
+                .thenApply(verification -> {
+                    if (!verification.matches()) {
+                        throw new RuntimeException("Invalid credentials");
+                    }
+                    if (verification.upgradedHash() != null) {
+                        user.setPasswordHash(verification.upgradedHash());
+                        userRepository.save(user);
+                    }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
+                    String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
 
-        return new LoginResponse(token, user.getRole(), user.getName());
+                    return new LoginResponse(token, user.getRole(), user.getName());
+                });
+    }
+
+    /**
+     * Revokes the token for the rest of its lifetime. Tokens that are already
+     * invalid or expired need no revocation and are rejected as such.
+     */
+    public void logout(String token) {
+        try {
+            tokenRevocationStore.revoke(jwtUtil.verify(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid or expired token");
+        }
     }
 }
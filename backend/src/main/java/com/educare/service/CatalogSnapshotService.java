@@ -0,0 +1,132 @@
+package com.educare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ready-to-send JSON for the published course catalog. Each page is serialised once,
+ * plain and gzipped, and then served as bytes until CourseService writes a course,
+ * which moves the catalog to a new version and drops every cached page. Within a
+ * version the least recently served pages give way once app.catalog.max-cached-pages
+ * is reached, so odd cursor/limit combinations cannot crowd out the common ones.
+ * ETags are derived from the page body, so they stay valid across restarts and instances.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.catalog.max-cached-pages:256}")
+    private int maxCachedPages;
+
+    private final AtomicLong versions = new AtomicLong();
+    private volatile Snapshot current = new Snapshot(0, newPages());
+
+    /**
+     * Called after every course write; later requests re-read the database.
+     */
+    public void invalidate() {
+        current = new Snapshot(versions.incrementAndGet(), newPages());
+    }
+
+    /**
+     * Returns the encoded page for {@code cursor}/{@code limit}, loading and
+     * serialising {@code body} only if this version has not produced it yet.
+     */
+    public EncodedPage page(String cursor, int limit, Supplier<?> body) {
+        // A page loaded while a write lands is filed under the old snapshot and never served again
+        Snapshot snapshot = current;
+        String key = (cursor != null ? cursor : "") + "|" + limit;
+
+        EncodedPage page = snapshot.pages.get(key);
+        if (page != null) {
+            return page;
+        }
+
+        page = encode(body.get());
+        EncodedPage raced = snapshot.pages.putIfAbsent(key, page);
+        return raced != null ? raced : page;
+    }
+
+    /**
+     * True if the client listed gzip in Accept-Encoding without refusing it (q=0).
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] params = coding.trim().split(";");
+            if (params[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < params.length; i++) {
+                    String param = params[i].trim().replace(" ", "");
+                    if (param.matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private EncodedPage encode(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+                out.write(json);
+            }
+
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String tag = HexFormat.of().formatHex(digest, 0, 16);
+            return new EncodedPage(json, gzipped.toByteArray(), tag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise catalog page", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Access-ordered, so the eldest entry is the page served least recently
+    private Map<String, EncodedPage> newPages() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EncodedPage> eldest) {
+                return size() > maxCachedPages;
+            }
+        });
+    }
+
+    private record Snapshot(long version, Map<String, EncodedPage> pages) {
+    }
+
+    /**
+     * One serialised page. The two encodings are different representations, so each gets its own ETag.
+     */
+    public record EncodedPage(byte[] json, byte[] gzip, String tag) {
+        public String etag(boolean gzipped) {
+            return "\"" + tag + (gzipped ? "-gz" : "") + "\"";
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.educare.service;
+
+import com.educare.dto.CreateUploadSessionRequest;
+import com.educare.entity.User;
+import com.educare.model.UploadSession;
+import com.educare.util.UploadFileTypes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable uploads: a session owns one file that chunks are written into at
+ * their own offsets, in any order and from parallel requests. Once every chunk
+ * is in, the file is already assembled and can go straight to the store or
+ * the video uploader without another copy.
+ *
+ * Sessions hold no open file between requests; each chunk write opens the file for
+ * its own positional write. Each owner may keep only a few sessions open at a time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final long MIN_CHUNK_SIZE = 256 * 1024;
+
+    private final FileStorageService fileStorageService;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${app.upload.chunk-size:8MB}")
+    private DataSize defaultChunkSize;
+
+    @Value("${app.upload.max-chunk-size:64MB}")
+    private DataSize maxChunkSize;
+
+    @Value("${app.upload.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    @Value("${spring.servlet.multipart.max-file-size}")
+    private DataSize maxFileSize;
+
+    @Value("${app.upload.max-sessions-per-user:5}")
+    private int maxSessionsPerUser;
+
+    public UploadSession create(CreateUploadSessionRequest request, User owner) throws IOException {
+        String fileType = UploadFileTypes.fileType(request.getContentType());
+        if (fileType == null) {
+            throw new RuntimeException("Unsupported file type: " + request.getContentType());
+        }
+        if (fileType.equals("VIDEO")
+                && !UploadFileTypes.SUPPORTED_VIDEO_EXTENSIONS.contains(UploadFileTypes.extension(request.getFilename()))) {
+            throw new RuntimeException("Unsupported video format");
+        }
+        if (request.getSize() > maxFileSize.toBytes()) {
+            throw new RuntimeException("File too large. Max " + maxFileSize.toMegabytes() + "MB allowed.");
+        }
+
+        long chunkSize = request.getChunkSize() != null ? request.getChunkSize() : defaultChunkSize.toBytes();
+        chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(chunkSize, maxChunkSize.toBytes()));
+
+        // Checked and registered together so parallel creates cannot slip past the cap
+        synchronized (sessions) {
+            long open = sessions.values().stream()
+                    .filter(s -> s.getOwnerId().equals(owner.getId()))
+                    .count();
+            if (open >= maxSessionsPerUser) {
+                throw new RuntimeException("Too many uploads in progress. Finish or abort one first (max "
+                        + maxSessionsPerUser + ")");
+            }
+
+            UploadSession session = new UploadSession(
+                    UUID.randomUUID().toString(),
+                    owner.getId(),
+                    request.getFilename(),
+                    request.getContentType(),
+                    request.getSize(),
+                    (int) chunkSize,
+                    fileStorageService.createTemp(),
+                    System.currentTimeMillis() + sessionTtl.toMillis());
+            sessions.put(session.getId(), session);
+            return session;
+        }
+    }
+
+    public UploadSession get(String uploadId, User user) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null || !session.getOwnerId().equals(user.getId())) {
+            throw new RuntimeException("Upload session not found or expired");
+        }
+        return session;
+    }
+
+    /**
+     * Writes one chunk at its offset. Re-sending a chunk simply overwrites it.
+     *
+     * @param offset Start of the chunk, must be a multiple of the session chunk size
+     * @param length Declared body length, must match the chunk's expected length
+     */
+    public UploadSession writeChunk(String uploadId, long offset, long length, InputStream body, User user)
+            throws IOException {
+        UploadSession session = get(uploadId, user);
+        if (offset < 0 || offset >= session.getSize() || offset % session.getChunkSize() != 0) {
+            throw new RuntimeException("Offset must be a chunk boundary inside the file");
+        }
+
+        int index = (int) (offset / session.getChunkSize());
+        long expected = session.chunkLength(index);
+        if (length != expected) {
+            throw new RuntimeException("Chunk at offset " + offset + " must be " + expected + " bytes");
+        }
+
+        // Positional writes, so parallel chunks of one session can share the file
+        ReadableByteChannel source = Channels.newChannel(body);
+        try (FileChannel channel = FileChannel.open(session.getFile(), StandardOpenOption.WRITE)) {
+            long written = 0;
+            while (written < expected) {
+                long n = channel.transferFrom(source, offset + written, expected - written);
+                if (n <= 0) {
+                    throw new EOFException("Chunk at offset " + offset + " ended after " + written + " bytes");
+                }
+                written += n;
+            }
+        }
+
+        session.markReceived(index);
+        session.touch(System.currentTimeMillis() + sessionTtl.toMillis());
+        return session;
+    }
+
+    /**
+     * Closes a fully received session and hands its assembled file to the caller,
+     * who must move or delete it.
+     */
+    public UploadSession complete(String uploadId, User user) throws IOException {
+        UploadSession session = get(uploadId, user);
+        if (!session.isComplete()) {
+            throw new RuntimeException("Upload incomplete: " + session.getReceivedOffsets().size()
+                    + " of " + session.getChunkCount() + " chunks received");
+        }
+        if (!sessions.remove(uploadId, session)) {
+            throw new RuntimeException("Upload already committed");
+        }
+        return session;
+    }
+
+    public void abort(String uploadId, User user) {
+        UploadSession session = get(uploadId, user);
+        if (sessions.remove(uploadId, session)) {
+            discard(session);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.session-sweep-interval:PT10M}")
+    public void expireSessions() {
+        long now = System.currentTimeMillis();
+        Iterator<UploadSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            UploadSession session = it.next();
+            if (session.getExpiresAt() < now) {
+                it.remove();
+                discard(session);
+            }
+        }
+        // Anything in .tmp this old belongs to no live session, request or publish job
+        fileStorageService.purgeTemp(sessionTtl);
+    }
+
+    private void discard(UploadSession session) {
+        try {
+            Files.deleteIfExists(session.getFile());
+        } catch (IOException e) {
+            log.warn("Could not discard upload session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
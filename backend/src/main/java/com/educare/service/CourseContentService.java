@@ -3,13 +3,26 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import lombok.RequiredArgsConstructor;  
+import com.educare.dto.AddCourseContentRequest;
+import com.educare.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import com.educare.dto.CourseContentResponse;
+import com.educare.dto.CursorPage;
+import com.educare.util.PageCursors;
+import org.springframework.data.domain.Limit;
 import com.educare.repository.CourseContentRepository;
 import com.educare.repository.CourseRepository;
-import com.educare.service.YouTubeUploadService;
+import com.educare.security.ContentUrlSigner;
 import com.educare.entity.CourseContent;
 import com.educare.entity.Course;
+import com.educare.entity.VideoPublishJob;
+import com.educare.model.VideoMetadata;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.io.IOException;
 import java.io.File;
 
@@ -20,7 +33,18 @@ public class CourseContentService {
     private final CourseRepository courseRepository;
     private final CourseContentRepository courseContentRepository;
     private final FileStorageService fileStorageService;
-    private final YouTubeUploadService youtubeUploadService;
+    private final VideoUploader videoUploader;
+    private final EntitlementService entitlementService;
+    private final ContentUrlSigner contentUrlSigner;
+    private final EntityManager entityManager;
+    private final VideoPublishService videoPublishService;
+    private final LocalVideoStore localVideoStore;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${app.content.bulk-max-items:5000}")
+    private int bulkMaxItems;
 
     private String getFileType(String filename) {
         String lower = filename.toLowerCase();
@@ -45,13 +69,65 @@ public class CourseContentService {
                 .course(course)
                 .title(title)
                 .fileType(fileType)
-                .fileUrl(fileUrl)
+                .fileUrl(contentUrlSigner.strip(fileUrl))
                 .durationSeconds(durationSeconds != null ? durationSeconds : null)
                 .isFree(isFree)
                 .build();
+        applyVideoMetadata(content);
 
         return courseContentRepository.save(content);
     }
+    /**
+     * Creates many contents for one course in a single transaction. Rows go out as
+     * JDBC batches; the persistence context is flushed and cleared after each batch,
+     * so managed entities do not pile up. The request list itself is parsed whole
+     * before it gets here, which is why app.content.bulk-max-items stays modest.
+     *
+     * @return number of contents created
+     */
+    @Transactional
+    public int addContents(Long courseId, List<AddCourseContentRequest> requests, User teacher) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("No contents provided");
+        }
+        if (requests.size() > bulkMaxItems) {
+            throw new RuntimeException("Too many contents in one import (max " + bulkMaxItems + ")");
+        }
+
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new RuntimeException("Course not found"));
+        if (!course.getTeacher().getId().equals(teacher.getId())) {
+            throw new RuntimeException("You are not the teacher of this course");
+        }
+
+        List<CourseContent> batch = new ArrayList<>(batchSize);
+        for (AddCourseContentRequest request : requests) {
+            CourseContent content = CourseContent.builder()
+                    .course(course)
+                    .title(request.getTitle())
+                    .fileType(request.getFileType())
+                    .fileUrl(contentUrlSigner.strip(request.getFileUrl()))
+                    .durationSeconds(request.getDurationSeconds())
+                    .isFree(request.isFree())
+                    .build();
+            // Same video facts as a single add, so imported rows are indistinguishable
+            applyVideoMetadata(content);
+            batch.add(content);
+            if (batch.size() == batchSize) {
+                persist(batch);
+            }
+        }
+        persist(batch);
+        return requests.size();
+    }
+
+    private void persist(List<CourseContent> batch) {
+        batch.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+        batch.clear();
+    }
+
     public CourseContent updateContent(Long courseId, Long contentId, String title, String fileType, String fileUrl, Integer durationSeconds, boolean isFree) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + courseId));
@@ -66,38 +142,117 @@ public class CourseContentService {
         // Update fields
         content.setTitle(title);
         content.setFileType(fileType);
-        content.setFileUrl(fileUrl);
+        content.setFileUrl(contentUrlSigner.strip(fileUrl));
         content.setDurationSeconds(durationSeconds);
         content.setFree(isFree);
+        applyVideoMetadata(content);
 
         return courseContentRepository.save(content);
     }
 
+    // Videos ingested through us already had their header read; fill in what the teacher left out
+    private void applyVideoMetadata(CourseContent content) {
+        if (!"VIDEO".equals(content.getFileType())) {
+            return;
+        }
+        Optional<VideoPublishJob> published = videoPublishService.findPublished(content.getFileUrl());
+        if (published.isPresent()) {
+            VideoPublishJob job = published.get();
+            if (content.getDurationSeconds() == null) {
+                content.setDurationSeconds(job.getDurationSeconds());
+            }
+            content.setVideoWidth(job.getVideoWidth());
+            content.setVideoHeight(job.getVideoHeight());
+            content.setVideoCodec(job.getVideoCodec());
+            content.setBitrate(job.getBitrate());
+            return;
+        }
+
+        VideoMetadata stored = localVideoStore.metadataFor(content.getFileUrl());
+        if (stored != null) {
+            if (content.getDurationSeconds() == null) {
+                content.setDurationSeconds(stored.getDurationSeconds());
+            }
+            content.setVideoWidth(stored.getWidth());
+            content.setVideoHeight(stored.getHeight());
+            content.setVideoCodec(stored.getVideoCodec());
+            content.setBitrate(stored.getBitrate());
+        }
+    }
+
 
-    public CourseContent getContentById(Long id) {
-        return courseContentRepository.findById(id)
-                .orElse(null); // return null if not found (controller handles 404)
+    // API view of a saved content, with a signed file link
+    public CourseContentResponse toResponse(CourseContent content) {
+        return signed(CourseContentResponse.from(content));
     }
 
-    public List<CourseContent> getContentsByCourseId(Long courseId) {
-        return courseContentRepository.findByCourseId(courseId);
+    // Null if not found or locked for this user (controller handles 404)
+    public CourseContentResponse getContentForUser(Long id, Long userId, String role) {
+        Optional<CourseContentResponse> content = courseContentRepository.findResponseById(id);
+        if (content.isPresent() && !seesAllContent(content.get().getCourseId(), userId, role)) {
+            content = courseContentRepository.findFreeResponseById(id);
+        }
+        return content.map(this::signed).orElse(null);
     }
-    public CourseContent getPublishedCourseContentById(Long courseId, Long contentId) {
-        // Step 1: Check if course is published
-        Course course = courseRepository.findByIdAndIsPublishedTrue(courseId)
-                .orElse(null);
-        if (course == null) {
-            return null; // Course either doesn't exist or isn't published
+
+    // Unfiltered; callers decide who may see every item
+    private CursorPage<CourseContentResponse> getContentsByCourseId(Long courseId, String cursor, int limit) {
+        return signed(CursorPage.of(
+                courseContentRepository.findResponsesByCourseId(courseId, PageCursors.decode(cursor), Limit.of(limit + 1)),
+                limit, CourseContentResponse::getId));
+    }
+
+    // Admins and the course's teacher see everything; others only what is free, paid for or granted
+    public CursorPage<CourseContentResponse> getContentsForUser(Long courseId, Long userId, String role,
+                                                                String cursor, int limit) {
+        if (seesAllContent(courseId, userId, role)) {
+            return getContentsByCourseId(courseId, cursor, limit);
         }
+        return signed(CursorPage.of(
+                courseContentRepository.findFreeResponsesByCourseId(courseId, PageCursors.decode(cursor), Limit.of(limit + 1)),
+                limit, CourseContentResponse::getId));
+    }
 
-        // Step 2: Check if content belongs to this course
-        CourseContent content = courseContentRepository.findById(contentId).orElse(null);
-        if (content == null || !content.getCourse().getId().equals(courseId)) {
-            return null;
+    // Same filtering as getContentsForUser, for a course that must be published
+    public CursorPage<CourseContentResponse> getPublishedContentsForUser(Long courseId, Long userId, String role,
+                                                                         String cursor, int limit) {
+        if (!courseRepository.existsByIdAndIsPublishedTrue(courseId)) {
+            throw new RuntimeException("Course not found or not published");
         }
+        return getContentsForUser(courseId, userId, role, cursor, limit);
+    }
+
+    // Content of a published course that the user may open; null if unpublished, elsewhere or locked
+    public CourseContentResponse getPublishedCourseContentForUser(Long courseId, Long contentId,
+                                                                  Long userId, String role) {
+        Optional<CourseContentResponse> content = seesAllContent(courseId, userId, role)
+                ? courseContentRepository.findPublishedResponse(courseId, contentId)
+                : courseContentRepository.findFreePublishedResponse(courseId, contentId);
+        return content.map(this::signed).orElse(null);
+    }
+
+    // Only these callers get signed links to paid files; the bitmap check needs no SQL
+    private boolean seesAllContent(Long courseId, Long userId, String role) {
+        if (role.equalsIgnoreCase("ADMIN") || entitlementService.isEntitled(courseId, userId)) {
+            return true;
+        }
+        return role.equalsIgnoreCase("TEACHER") && courseRepository.existsByIdAndTeacherId(courseId, userId);
+    }
 
+    // Files under /uploads/ are only served with a signature; links expire after app.content-url.ttl (videos: their length plus the ttl)
+    private CourseContentResponse signed(CourseContentResponse content) {
+        String url = "VIDEO".equals(content.getFileType())
+                ? contentUrlSigner.signMedia(content.getFileUrl(), content.getCourseId(), content.getId(),
+                        content.getDurationSeconds())
+                : contentUrlSigner.sign(content.getFileUrl(), content.getCourseId(), content.getId());
+        content.setFileUrl(url);
         return content;
     }
 
+    private CursorPage<CourseContentResponse> signed(CursorPage<CourseContentResponse> page) {
+        page.getItems().forEach(this::signed);
+        return page;
+    }
+
 
 }
@@ -0,0 +1,389 @@
+package com.educare.service;
+
+import com.educare.dto.CourseResponse;
+import com.educare.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory full-text index over published courses (title, description, teacher name),
+ * ranked with BM25. Query terms match exactly, within one typo, and the last term
+ * also as a prefix so the box can search as the user types.
+ * CourseService keeps it in step on every add and update; the whole index is
+ * rebuilt at startup with tokenising spread over the common pool.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseSearchIndex {
+
+    // BM25 defaults
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field weights, folded into the term frequencies (a simplified BM25F)
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TEACHER_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Expanded terms count for less than the word the user actually typed
+    private static final double PREFIX_BOOST = 0.7;
+    private static final double TYPO_BOOST = 0.5;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final CourseRepository courseRepository;
+
+    @Value("${app.search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private Segment segment = new Segment();
+    // Changes made while a rebuild runs, replayed onto the new segment; a null value is a removal
+    private Map<Long, Doc> changedDuringRebuild;
+
+    /**
+     * Adds or refreshes a course; unpublished courses are dropped from the index.
+     */
+    public void index(CourseResponse course) {
+        if (!course.isPublished()) {
+            remove(course.getId());
+            return;
+        }
+        Doc doc = analyze(course);
+        lock.writeLock().lock();
+        try {
+            segment.add(doc);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(course.getId(), doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long courseId) {
+        lock.writeLock().lock();
+        try {
+            segment.remove(courseId);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(courseId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} published courses matching the query, best match first.
+     */
+    public List<CourseResponse> search(String query, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Segment s = segment;
+            if (s.docs.isEmpty()) {
+                return List.of();
+            }
+
+            int docCount = s.docs.size();
+            double avgLength = (double) s.totalLength / docCount;
+            Map<Long, Double> scores = new HashMap<>();
+
+            for (int i = 0; i < terms.size(); i++) {
+                // Each query term counts once per course, through its best-scoring expansion
+                Map<Long, Double> best = new HashMap<>();
+                for (Map.Entry<String, Double> expansion : s.expand(terms.get(i), i == terms.size() - 1).entrySet()) {
+                    Map<Long, Integer> postings = s.postings.get(expansion.getKey());
+                    double df = postings.size();
+                    double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+                    for (Map.Entry<Long, Integer> posting : postings.entrySet()) {
+                        int tf = posting.getValue();
+                        int length = s.docs.get(posting.getKey()).length();
+                        double score = expansion.getValue() * idf * tf * (K1 + 1)
+                                / (tf + K1 * (1 - B + B * length / avgLength));
+                        best.merge(posting.getKey(), score, Math::max);
+                    }
+                }
+                best.forEach((id, score) -> scores.merge(id, score, Double::sum));
+            }
+
+            // Keep the top `limit` in a min-heap instead of sorting every hit
+            Comparator<Map.Entry<Long, Double>> byScore =
+                    Map.Entry.<Long, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(limit + 1, byScore);
+            for (Map.Entry<Long, Double> hit : scores.entrySet()) {
+                top.offer(hit);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(top);
+            ranked.sort(byScore.reversed());
+            List<CourseResponse> results = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Double> hit : ranked) {
+                results.add(s.docs.get(hit.getKey()).course());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the database. Searches keep using the old index until
+     * the new one is swapped in; adds and updates made meanwhile are carried over.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.nanoTime();
+        Segment fresh = new Segment();
+        try {
+            List<CourseResponse> courses = new ArrayList<>();
+            List<CourseResponse> batch;
+            long after = 0;
+            do {
+                batch = courseRepository.findPublishedResponsesAfter(after, Limit.of(rebuildBatchSize));
+                courses.addAll(batch);
+                if (!batch.isEmpty()) {
+                    after = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == rebuildBatchSize);
+
+            // Normalising and tokenising is the expensive part; the inserts are cheap
+            courses.parallelStream()
+                    .map(CourseSearchIndex::analyze)
+                    .toList()
+                    .forEach(fresh::add);
+        } catch (RuntimeException e) {
+            log.error("Course search index rebuild failed; keeping the current index", e);
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach((id, doc) -> {
+                if (doc == null) {
+                    fresh.remove(id);
+                } else {
+                    fresh.add(doc);
+                }
+            });
+            changedDuringRebuild = null;
+            segment = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Course search index built: {} courses, {} terms in {} ms",
+                fresh.docs.size(), fresh.postings.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static Doc analyze(CourseResponse course) {
+        Map<String, Integer> tf = new HashMap<>();
+        int length = addField(tf, course.getTitle(), TITLE_WEIGHT)
+                + addField(tf, course.getTeacherName(), TEACHER_WEIGHT)
+                + addField(tf, course.getDescription(), DESCRIPTION_WEIGHT);
+        return new Doc(course, tf, length);
+    }
+
+    private static int addField(Map<String, Integer> tf, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            tf.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    /**
+     * Lower-cased, accent-stripped words; "Café Basics" and "cafe basics" index alike.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(NON_WORD.split(folded))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    /**
+     * True if {@code a} becomes {@code b} with at most one insertion, deletion,
+     * substitution or swap of adjacent characters.
+     */
+    private static boolean withinOneEdit(String a, String b) {
+        if (a.length() > b.length()) {
+            return withinOneEdit(b, a);
+        }
+        if (b.length() - a.length() > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i == a.length()) {
+            return true;
+        }
+        if (a.length() != b.length()) {
+            return a.regionMatches(i, b, i + 1, a.length() - i);
+        }
+        if (a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)) {
+            return true; // substitution
+        }
+        return i + 1 < a.length()
+                && a.charAt(i) == b.charAt(i + 1)
+                && a.charAt(i + 1) == b.charAt(i)
+                && a.regionMatches(i + 2, b, i + 2, a.length() - i - 2);
+    }
+
+    private static List<String> deletions(String term) {
+        List<String> variants = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    // An analysed course: weighted term frequencies and weighted length
+    private record Doc(CourseResponse course, Map<String, Integer> tf, int length) {
+    }
+
+    /**
+     * The index proper. Not thread-safe; always used under the outer lock.
+     */
+    private static final class Segment {
+        private final Map<Long, Doc> docs = new HashMap<>();
+        // Sorted so prefix matches are a range scan
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        // One-character-deletion variant -> indexed terms producing it, for typo lookups
+        private final Map<String, Set<String>> variants = new HashMap<>();
+        private long totalLength;
+
+        void add(Doc doc) {
+            Long id = doc.course().getId();
+            remove(id);
+            docs.put(id, doc);
+            totalLength += doc.length();
+            doc.tf().forEach((term, tf) -> postings.computeIfAbsent(term, t -> {
+                if (t.length() >= MIN_TYPO_LENGTH - 1) {
+                    for (String variant : deletions(t)) {
+                        variants.computeIfAbsent(variant, v -> new HashSet<>()).add(t);
+                    }
+                }
+                return new HashMap<>();
+            }).put(id, tf));
+        }
+
+        void remove(Long id) {
+            Doc old = docs.remove(id);
+            if (old == null) {
+                return;
+            }
+            totalLength -= old.length();
+            for (String term : old.tf().keySet()) {
+                Map<Long, Integer> list = postings.get(term);
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                    if (term.length() >= MIN_TYPO_LENGTH - 1) {
+                        for (String variant : deletions(term)) {
+                            Set<String> terms = variants.get(variant);
+                            terms.remove(term);
+                            if (terms.isEmpty()) {
+                                variants.remove(variant);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Indexed terms a query term stands for, with the weight each one scores at.
+         */
+        Map<String, Double> expand(String term, boolean allowPrefix) {
+            Map<String, Double> expansions = new LinkedHashMap<>();
+            if (postings.containsKey(term)) {
+                expansions.put(term, 1.0);
+            }
+
+            if (allowPrefix && term.length() >= MIN_PREFIX_LENGTH) {
+                int added = 0;
+                for (String candidate : postings.tailMap(term, false).keySet()) {
+                    if (!candidate.startsWith(term) || added++ >= MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    expansions.putIfAbsent(candidate, PREFIX_BOOST);
+                }
+            }
+
+            if (term.length() >= MIN_TYPO_LENGTH) {
+                // Symmetric deletion: two words within one edit share a one-deletion variant,
+                // or one is a deletion of the other
+                Set<String> candidates = new HashSet<>(variants.getOrDefault(term, Set.of()));
+                for (String variant : deletions(term)) {
+                    if (postings.containsKey(variant)) {
+                        candidates.add(variant);
+                    }
+                    candidates.addAll(variants.getOrDefault(variant, Set.of()));
+                }
+                for (String candidate : candidates) {
+                    if (withinOneEdit(term, candidate)) {
+                        expansions.putIfAbsent(candidate, TYPO_BOOST);
+                    }
+                }
+            }
+            return expansions;
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.educare.service;
 
 import com.educare.dto.AddCourseRequest;
+import com.educare.dto.CourseResponse;
+import com.educare.dto.CursorPage;
+import com.educare.dto.TeacherCourseStatsResponse;
 import com.educare.entity.Course;
 import com.educare.entity.User;
 import com.educare.repository.CourseRepository;
+import com.educare.util.PageCursors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.time.LocalDateTime;
@@ -16,6 +21,8 @@ import java.math.BigDecimal;
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final CourseSearchIndex courseSearchIndex;
+    private final CatalogSnapshotService catalogSnapshotService;
 
     public Course addCourse(User teacher, AddCourseRequest request) {
         System.out.println(request.isPublished());
@@ -30,15 +37,24 @@ public class CourseService {
                 .imageUrl(request.getImageUrl())
                 .build();
 
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        courseSearchIndex.index(CourseResponse.from(saved));
+        catalogSnapshotService.invalidate();
+        return saved;
     }
-    public List<Course> getAllCourses() {
-        return courseRepository.findAll();
+    public CursorPage<CourseResponse> getAllCourses(String cursor, int limit) {
+        return CursorPage.of(
+                courseRepository.findResponsesAfter(PageCursors.decode(cursor), Limit.of(limit + 1)),
+                limit, CourseResponse::getId);
     }
     public Course getCourseById(Long id) {
         return courseRepository.findById(id).orElse(null);
     }
 
+    public CourseResponse getCourseResponseById(Long id) {
+        return courseRepository.findResponseById(id).orElse(null);
+    }
+
 
     public Course updateCourse(Course existingCourse, AddCourseRequest request) {
         existingCourse.setTitle(request.getTitle());
@@ -47,15 +63,30 @@ public class CourseService {
         existingCourse.setPublished(request.isPublished());
         existingCourse.setUpdatedAt(LocalDateTime.now());
 
-        return courseRepository.save(existingCourse);
+        Course saved = courseRepository.save(existingCourse);
+        courseSearchIndex.index(CourseResponse.from(saved));
+        catalogSnapshotService.invalidate();
+        return saved;
+    }
+    public CursorPage<CourseResponse> getAllPublishedCourses(String cursor, int limit) {
+        return CursorPage.of(
+                courseRepository.findPublishedResponsesAfter(PageCursors.decode(cursor), Limit.of(limit + 1)),
+                limit, CourseResponse::getId);
+    }
+
+    // The teacher's own courses with enrollment, content, video and note totals
+    public List<TeacherCourseStatsResponse> getTeacherDashboard(User teacher) {
+        return courseRepository.findTeacherStats(teacher.getId());
     }
-    public List<Course> getAllPublishedCourses() {
-        return courseRepository.findByIsPublishedTrue();
+
+    // Ranked full-text search over published courses, served from memory
+    public List<CourseResponse> searchPublishedCourses(String query, int limit) {
+        return courseSearchIndex.search(query, limit);
     }
 
     // Return a single published course by ID
-    public Course getPublishedCourseById(Long id) {
-        return courseRepository.findByIdAndIsPublishedTrue(id)
+    public CourseResponse getPublishedCourseById(Long id) {
+        return courseRepository.findPublishedResponseById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found or not published"));
     }
 
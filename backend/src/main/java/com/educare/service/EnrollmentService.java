@@ -1,5 +1,6 @@
 package com.educare.service;
 
+import com.educare.dto.CursorPage;
 import com.educare.dto.EnrollmentResponse;
 import com.educare.dto.FreeEnrollmentRequest;
 import com.educare.entity.Course;
@@ -8,8 +9,10 @@ import com.educare.entity.User;
 import com.educare.repository.CourseRepository;
 import com.educare.repository.EnrollmentRepository;
 import com.educare.repository.UserRepository;
+import com.educare.util.PageCursors;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import java.util.stream.Collectors;
 
@@ -91,10 +94,11 @@ public class EnrollmentService {
                 .enrolledAt(e.getEnrolledAt())
                 .build();
     }
-    /** ✅ 3. Get all enrollments for a course */
-    public List<EnrollmentResponse> getEnrollmentsByCourse(Long courseId) {
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId);
-        return enrollments.stream().map(this::toDTO).collect(Collectors.toList());
+    /** ✅ 3. Get enrollments for a course, one keyset page at a time */
+    public CursorPage<EnrollmentResponse> getEnrollmentsByCourse(Long courseId, String cursor, int limit) {
+        List<EnrollmentResponse> enrollments = enrollmentRepository.findResponsesByCourseId(
+                courseId, PageCursors.decode(cursor), Limit.of(limit + 1));
+        return CursorPage.of(enrollments, limit, EnrollmentResponse::getId);
     }
 
     private EnrollmentResponse toDTO(Enrollment enrollment) {
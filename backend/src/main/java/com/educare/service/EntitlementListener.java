@@ -0,0 +1,69 @@
+package com.educare.service;
+
+import com.educare.entity.Enrollment;
+import com.educare.entity.Payment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link Enrollment} and {@link Payment} that feeds the
+ * {@link EntitlementService}. Changes are applied once the transaction commits, so
+ * a rolled-back grant never opens content. Bulk JPQL/SQL writes bypass entity
+ * listeners and are only picked up by the periodic reload.
+ */
+@Component
+public class EntitlementListener {
+
+    private final EntitlementService entitlementService;
+
+    public EntitlementListener(@Lazy EntitlementService entitlementService) {
+        this.entitlementService = entitlementService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Object entity) {
+        if (entity instanceof Enrollment enrollment) {
+            Long courseId = enrollment.getCourse().getId();
+            Long studentId = enrollment.getStudent().getId();
+            afterCommit(() -> entitlementService.enrollmentAdded(courseId, studentId));
+        } else if (entity instanceof Payment payment) {
+            paymentChanged(payment, payment.getStatus());
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Enrollment enrollment) {
+            Long courseId = enrollment.getCourse().getId();
+            Long studentId = enrollment.getStudent().getId();
+            afterCommit(() -> entitlementService.enrollmentRemoved(courseId, studentId));
+        } else if (entity instanceof Payment payment) {
+            paymentChanged(payment, null);
+        }
+    }
+
+    private void paymentChanged(Payment payment, String status) {
+        Long courseId = payment.getCourse().getId();
+        Long studentId = payment.getStudent().getId();
+        afterCommit(() -> entitlementService.paymentChanged(courseId, studentId, status));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
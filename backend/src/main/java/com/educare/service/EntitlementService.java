@@ -0,0 +1,170 @@
+package com.educare.service;
+
+import com.educare.model.Entitlement;
+import com.educare.repository.EnrollmentRepository;
+import com.educare.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Who may open a course's paid content, held in memory as one compressed bitmap of
+ * student ids per course: one set for enrollments (free access granted by the teacher),
+ * one for successful payments. An access check is two bitmap lookups and no SQL.
+ *
+ * Kept current by {@link EntitlementListener} after each committed enrollment or payment
+ * change, and reloaded from the database on a schedule to pick up writes made elsewhere
+ * (other instances, the payment provider's side).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EntitlementService {
+
+    private static final String PAYMENT_SUCCESS = "SUCCESS";
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final PaymentRepository paymentRepository;
+
+    private volatile Index index = new Index();
+
+    // guarded by this; changes made while a reload runs, replayed onto the new index
+    private List<Consumer<Index>> changedDuringReload;
+
+    public boolean isEntitled(Long courseId, Long studentId) {
+        if (courseId == null || studentId == null) {
+            return false;
+        }
+        Index current = index;
+        return Index.contains(current.enrolled, courseId, studentId)
+                || Index.contains(current.paid, courseId, studentId);
+    }
+
+    public void enrollmentAdded(Long courseId, Long studentId) {
+        apply(i -> Index.add(i.enrolled, courseId, studentId));
+    }
+
+    public void enrollmentRemoved(Long courseId, Long studentId) {
+        apply(i -> Index.remove(i.enrolled, courseId, studentId));
+    }
+
+    /**
+     * Records a payment whose status changed or that was deleted. Anything but a
+     * success only revokes if no other successful payment covers the same course.
+     */
+    public void paymentChanged(Long courseId, Long studentId, String status) {
+        if (PAYMENT_SUCCESS.equals(status)
+                || paymentRepository.existsByCourseIdAndStudentIdAndStatus(courseId, studentId, PAYMENT_SUCCESS)) {
+            apply(i -> Index.add(i.paid, courseId, studentId));
+        } else {
+            apply(i -> Index.remove(i.paid, courseId, studentId));
+        }
+    }
+
+    /**
+     * Rebuilds both bitmap sets from the database and swaps them in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.entitlements.reload-interval:PT10M}",
+            fixedDelayString = "${app.entitlements.reload-interval:PT10M}")
+    public void reload() {
+        synchronized (this) {
+            changedDuringReload = new ArrayList<>();
+        }
+
+        Index fresh = new Index();
+        try {
+            // Not published yet, so the bitmaps can be filled in place
+            for (Entitlement e : enrollmentRepository.findAllEntitlements()) {
+                fresh.enrolled.computeIfAbsent(e.getCourseId(), id -> new Roaring64NavigableMap())
+                        .addLong(e.getStudentId());
+            }
+            for (Entitlement e : paymentRepository.findPaidEntitlements()) {
+                fresh.paid.computeIfAbsent(e.getCourseId(), id -> new Roaring64NavigableMap())
+                        .addLong(e.getStudentId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Entitlement reload failed; keeping the current index", e);
+            synchronized (this) {
+                changedDuringReload = null;
+            }
+            return;
+        }
+        fresh.optimize();
+
+        synchronized (this) {
+            changedDuringReload.forEach(change -> change.accept(fresh));
+            changedDuringReload = null;
+            index = fresh;
+        }
+        log.debug("Entitlements loaded: {} courses with enrollments, {} with payments",
+                fresh.enrolled.size(), fresh.paid.size());
+    }
+
+    private synchronized void apply(Consumer<Index> change) {
+        change.accept(index);
+        if (changedDuringReload != null) {
+            changedDuringReload.add(change);
+        }
+    }
+
+    /**
+     * Course id -> bitmap of student ids. Bitmaps are never modified once published
+     * in the map; writers replace them with an updated copy, so readers need no lock.
+     */
+    private static final class Index {
+        private final Map<Long, Roaring64NavigableMap> enrolled = new ConcurrentHashMap<>();
+        private final Map<Long, Roaring64NavigableMap> paid = new ConcurrentHashMap<>();
+
+        static boolean contains(Map<Long, Roaring64NavigableMap> set, Long courseId, Long studentId) {
+            Roaring64NavigableMap students = set.get(courseId);
+            return students != null && students.contains(studentId);
+        }
+
+        static void add(Map<Long, Roaring64NavigableMap> set, Long courseId, Long studentId) {
+            set.compute(courseId, (id, students) -> {
+                if (students != null && students.contains(studentId)) {
+                    return students;
+                }
+                Roaring64NavigableMap copy = copyOf(students);
+                copy.addLong(studentId);
+                return copy;
+            });
+        }
+
+        static void remove(Map<Long, Roaring64NavigableMap> set, Long courseId, Long studentId) {
+            set.computeIfPresent(courseId, (id, students) -> {
+                if (!students.contains(studentId)) {
+                    return students;
+                }
+                Roaring64NavigableMap copy = copyOf(students);
+                copy.removeLong(studentId);
+                return copy.isEmpty() ? null : copy;
+            });
+        }
+
+        private static Roaring64NavigableMap copyOf(Roaring64NavigableMap students) {
+            Roaring64NavigableMap copy = new Roaring64NavigableMap();
+            if (students != null) {
+                copy.or(students);
+            }
+            return copy;
+        }
+
+        // Only called on a fresh index before it is published
+        void optimize() {
+            enrolled.values().forEach(Roaring64NavigableMap::runOptimize);
+            paid.values().forEach(Roaring64NavigableMap::runOptimize);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.educare.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for YouTube used to load-test the publishing pipeline: reads the
+ * file like a real upload would, at a configurable throughput, and fails a
+ * configurable share of calls so retries get exercised.
+ */
+@Service
+@ConditionalOnProperty(name = "app.video.uploader", havingValue = "fake")
+public class FakeVideoUploader implements VideoUploader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Value("${app.video.fake.throughput:20MB}")
+    private DataSize throughput; // per second
+
+    @Value("${app.video.fake.failure-rate:0.0}")
+    private double failureRate;
+
+    @Override
+    public String uploadVideo(String filePath, String title, String description, String[] tags, String privacy,
+                              ProgressListener progress) throws IOException {
+        long bytesPerSecond = Math.max(1, throughput.toBytes());
+        long size = Files.size(Paths.get(filePath));
+        // Failing uploads break off somewhere in the middle, like a dropped connection would
+        long failAt = shouldFail() ? ThreadLocalRandom.current().nextLong(size + 1) : -1;
+        long started = System.nanoTime();
+        long sent = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        try (InputStream in = Files.newInputStream(Paths.get(filePath))) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                sent += n;
+                if (failAt >= 0 && sent >= failAt) {
+                    throw new IOException("Simulated upload failure after " + sent + " bytes");
+                }
+                progress.onProgress(sent, size);
+                long dueNanos = sent * 1_000_000_000L / bytesPerSecond;
+                long aheadNanos = dueNanos - (System.nanoTime() - started);
+                if (aheadNanos > 0) {
+                    pause(aheadNanos);
+                }
+            }
+        }
+        return "fake-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public void uploadThumbnail(String videoId, String contentType, byte[] thumbnail) throws IOException {
+        if (shouldFail()) {
+            throw new IOException("Simulated thumbnail failure");
+        }
+    }
+
+    private boolean shouldFail() {
+        return failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+    }
+
+    private void pause(long nanos) throws InterruptedIOException {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+    }
+}
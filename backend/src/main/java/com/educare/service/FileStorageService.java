@@ -1,18 +1,58 @@
 package com.educare.service;
 
+import com.educare.entity.UploadAlias;
+import com.educare.model.BlobDeletedEvent;
+import com.educare.model.UploadMetadata;
+import com.educare.repository.UploadAliasRepository;
+import com.educare.repository.UploadBlobRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Optional;
 
+/**
+ * Content-addressed upload store. Every distinct file body is kept once as a blob
+ * named by its SHA-256; the public names handed out in /uploads/ URLs are rows in
+ * upload_aliases pointing at a blob. Files written before the store existed still
+ * live flat in app.upload.dir and are served from there until
+ * {@link UploadLayoutMigrator} has moved them.
+ */
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
 
+    private static final String BLOB_DIR = ".blobs";
+    private static final String TMP_DIR = ".tmp";
+    private static final String VARIANT_DIR = ".variants";
+
+    private final UploadMetadataIndex uploadMetadataIndex;
+    private final UploadBlobRepository uploadBlobRepository;
+    private final UploadAliasRepository uploadAliasRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
     @Value("${app.upload.dir}")
     private String uploadDir; // e.g., "uploads/"
 
@@ -20,18 +60,255 @@ public class FileStorageService {
      * Saves a file to local filesystem and returns the accessible URL/path.
      */
     public String storeFile(MultipartFile file) throws IOException {
-        String filename = StringUtils.cleanPath(file.getOriginalFilename());
-        Path uploadPath = Paths.get(uploadDir);
-
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        String filename = publicName(file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            store(filename, in);
         }
 
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath);
-
         // Return relative path or full URL if you have static mapping
         return "/uploads/" + filename;
     }
 
+    /**
+     * Builds a fresh public name for an upload; the timestamp prefix keeps names unique
+     * so a stored URL never changes meaning.
+     */
+    public String publicName(String originalFilename) {
+        String cleaned = StringUtils.getFilename(StringUtils.cleanPath(
+                originalFilename != null ? originalFilename : "file"));
+        return System.currentTimeMillis() + "-" + cleaned;
+    }
+
+    /**
+     * Streams the body into the blob store, hashing it on the way, and binds
+     * {@code filename} to the resulting blob. Identical bodies share one blob.
+     * The transfer runs outside any transaction; only the final bind takes a connection.
+     */
+    public UploadMetadata store(String filename, InputStream in) throws IOException {
+        Path tmp = createTemp();
+
+        MessageDigest digest = UploadMetadataIndex.newDigest();
+        long size;
+        try (InputStream digesting = new DigestInputStream(in, digest)) {
+            size = Files.copy(digesting, tmp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        String sha256 = UploadMetadataIndex.toHex(digest);
+
+        return bind(filename, tmp, sha256, size);
+    }
+
+    /**
+     * Streams a body into a private temp file on the same filesystem as the store,
+     * for callers that need the bytes on disk before deciding what to do with them.
+     * The caller owns the returned file and must delete or {@link #bind} it.
+     */
+    public Path stageTemp(InputStream in) throws IOException {
+        Path tmp = createTemp();
+        try {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return tmp;
+    }
+
+    /**
+     * Creates an empty private temp file on the same filesystem as the blobs,
+     * so finished files can be moved into place with a rename.
+     */
+    public Path createTemp() throws IOException {
+        Path tmpDir = root().resolve(TMP_DIR);
+        Files.createDirectories(tmpDir);
+        return Files.createTempFile(tmpDir, "upload-", ".part");
+    }
+
+    /**
+     * Deletes temp files untouched for longer than {@code maxAge}, left behind by
+     * failed or abandoned uploads.
+     */
+    public void purgeTemp(Duration maxAge) {
+        Path tmpDir = root().resolve(TMP_DIR);
+        if (!Files.isDirectory(tmpDir)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - maxAge.toMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tmpDir)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            // retried on the next sweep
+        }
+    }
+
+    /**
+     * Moves a fully written, already hashed temp file into the blob store
+     * (or drops it if the blob exists) and points {@code filename} at it.
+     * Only the alias and refcount upsert run in a transaction, so it is short.
+     */
+    public UploadMetadata bind(String filename, Path tmp, String sha256, long size) throws IOException {
+        Path blob = placeBlob(tmp, sha256);
+        // Through the template: a self-call would bypass the @Transactional proxy
+        transactionTemplate.executeWithoutResult(status -> registerAlias(filename, sha256, size));
+        return uploadMetadataIndex.record(filename, blob, sha256);
+    }
+
+    /**
+     * Points {@code filename} at a blob and takes a reference on it.
+     * Does nothing if the alias already exists, so retries are safe.
+     */
+    @Transactional
+    public void registerAlias(String filename, String sha256, long size) {
+        if (uploadAliasRepository.existsById(filename)) {
+            return;
+        }
+        uploadBlobRepository.acquire(sha256, size);
+        uploadAliasRepository.save(UploadAlias.builder()
+                .name(filename)
+                .sha256(sha256)
+                .build());
+    }
+
+    /**
+     * Moves {@code source} to the sharded blob path for {@code sha256}, or deletes it
+     * if that blob is already stored. Returns the blob path.
+     */
+    public Path placeBlob(Path source, String sha256) throws IOException {
+        Path blob = blobPath(sha256);
+        if (Files.exists(blob)) {
+            Files.deleteIfExists(source);
+            return blob;
+        }
+
+        Files.createDirectories(blob.getParent());
+        try {
+            Files.move(source, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // a concurrent upload of the same body won the race
+            Files.deleteIfExists(source);
+        }
+        return blob;
+    }
+
+    /**
+     * Resolves a public name: indexed entry first, then the alias table,
+     * then a legacy flat file. Returns null if nothing matches.
+     */
+    public UploadMetadata lookup(String filename) {
+        UploadMetadata cached = uploadMetadataIndex.get(filename);
+        if (cached != null) {
+            return cached;
+        }
+
+        // An alias whose blob is not in place yet is mid-migration; the flat file still serves it
+        Optional<UploadAlias> alias = uploadAliasRepository.findById(filename);
+        if (alias.isPresent()) {
+            Path blob = locateBlob(alias.get().getSha256());
+            if (blob != null) {
+                try {
+                    return uploadMetadataIndex.record(filename, blob, alias.get().getSha256());
+                } catch (IOException e) {
+                    return null;
+                }
+            }
+        }
+
+        return uploadMetadataIndex.lookup(filename);
+    }
+
+    /**
+     * Drops a public name; the blob goes away with its last alias. Files are deleted
+     * only after the commit, so a rollback never leaves an alias without its blob.
+     */
+    @Transactional
+    public void release(String filename) {
+        Optional<UploadAlias> alias = uploadAliasRepository.findById(filename);
+        if (alias.isEmpty()) {
+            return;
+        }
+
+        String sha256 = alias.get().getSha256();
+        uploadAliasRepository.delete(alias.get());
+        uploadAliasRepository.flush(); // alias row must be gone before the blob row can be
+
+        uploadBlobRepository.release(sha256);
+        boolean unreferenced = uploadBlobRepository.deleteIfUnreferenced(sha256) > 0;
+
+        afterCommit(() -> {
+            uploadMetadataIndex.evict(filename);
+            if (unreferenced) {
+                deleteBlobFiles(sha256);
+            }
+        });
+    }
+
+    private void deleteBlobFiles(String sha256) {
+        try {
+            Files.deleteIfExists(blobPath(sha256));
+            Files.deleteIfExists(flatBlobPath(sha256));
+            FileSystemUtils.deleteRecursively(variantDir(sha256));
+        } catch (IOException e) {
+            // The row is gone; a leftover file is only wasted space
+            log.warn("Could not delete blob {}: {}", sha256, e.getMessage());
+        }
+        eventPublisher.publishEvent(new BlobDeletedEvent(sha256));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Sharded blob location: two levels of 256 buckets taken from the digest,
+     * e.g. .blobs/9f/86/9f86d0...; keeps every directory small.
+     */
+    public Path blobPath(String sha256) {
+        return root().resolve(BLOB_DIR)
+                .resolve(sha256.substring(0, 2))
+                .resolve(sha256.substring(2, 4))
+                .resolve(sha256);
+    }
+
+    // Pre-sharding location, still read until the migrator has moved everything
+    public Path flatBlobPath(String sha256) {
+        return root().resolve(BLOB_DIR).resolve(sha256);
+    }
+
+    // Derived files (e.g. resized images) of one blob; removed with the blob
+    public Path variantDir(String sha256) {
+        return root().resolve(VARIANT_DIR)
+                .resolve(sha256.substring(0, 2))
+                .resolve(sha256);
+    }
+
+    private Path locateBlob(String sha256) {
+        Path sharded = blobPath(sha256);
+        if (Files.isRegularFile(sharded)) {
+            return sharded;
+        }
+        Path flat = flatBlobPath(sha256);
+        if (Files.isRegularFile(flat)) {
+            return flat;
+        }
+        return null;
+    }
+
+    public Path root() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
 }
@@ -0,0 +1,261 @@
+package com.educare.service;
+
+import com.educare.model.UploadMetadata;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams stored files to the client with HTTP Range support (RFC 9110 §14).
+ * Single-range responses of 48 KB and more are handed to Tomcat's sendfile and
+ * never enter the JVM; smaller ones and multipart/byteranges go through
+ * FileChannel.transferTo into the servlet stream, which copies via a heap buffer.
+ */
+@Service
+public class FileStreamingService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Same cut-off Tomcat's DefaultServlet uses; below it sendfile costs more than it saves
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    /**
+     * Writes the file (or the requested byte ranges of it) to the response.
+     * Conditional requests that still match are answered with 304 from the
+     * metadata alone, without opening the file.
+     *
+     * @param metadata Indexed metadata of the file to send
+     * @param request  Current request, used for conditionals, Range / If-Range and sendfile
+     * @param response Response to write to
+     */
+    public void serve(UploadMetadata metadata, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serve(metadata, IMMUTABLE, request, response);
+    }
+
+    /**
+     * Same as {@link #serve(UploadMetadata, HttpServletRequest, HttpServletResponse)} with
+     * an explicit Cache-Control, for responses that must not outlive a signed link.
+     */
+    public void serve(UploadMetadata metadata, String cacheControl,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = metadata.getPath();
+        long length = metadata.getSize();
+        long lastModified = metadata.getLastModified();
+        String etag = metadata.getEtag();
+        String contentType = metadata.getContentType();
+
+        // Stored names are timestamp/content derived and never rewritten
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // The public name, not the blob path; filename* (RFC 6266) carries spaces and non-ASCII intact
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                .filename(metadata.getFilename(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+
+        boolean headOnly = "HEAD".equalsIgnoreCase(request.getMethod());
+        List<HttpRange> ranges = requestedRanges(request, etag, lastModified);
+
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (!headOnly) {
+                send(file, 0, length, request, response);
+            }
+            return;
+        }
+
+        List<long[]> slices = satisfiableSlices(ranges, length);
+        if (slices == null || slices.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setContentLengthLong(0);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+        if (slices.size() == 1) {
+            long start = slices.get(0)[0];
+            long end = slices.get(0)[1];
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            response.setContentLengthLong(end - start + 1);
+            if (!headOnly) {
+                send(file, start, end - start + 1, request, response);
+            }
+            return;
+        }
+
+        sendMultipart(file, contentType, length, slices, headOnly, response);
+    }
+
+    /**
+     * Resolves ranges against the file length, drops unsatisfiable ones (including
+     * {@code bytes=-0}) and merges overlapping or adjacent ones, sorted by offset.
+     * Returns null if the requested ranges add up to more than the file, the same
+     * limit {@code HttpRange.toResourceRegions} applies, so a request can never make
+     * us send more than one copy of the file.
+     */
+    private List<long[]> satisfiableSlices(List<HttpRange> ranges, long length) {
+        List<long[]> slices = new ArrayList<>();
+        long requested = 0;
+        for (HttpRange range : ranges) {
+            long start;
+            long end;
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                continue; // start beyond end of file
+            }
+            if (start > end) {
+                continue; // empty suffix range
+            }
+            requested += end - start + 1;
+            if (requested > length) {
+                return null;
+            }
+            slices.add(new long[]{start, end});
+        }
+
+        slices.sort(Comparator.comparingLong(slice -> slice[0]));
+        List<long[]> merged = new ArrayList<>(slices.size());
+        for (long[] slice : slices) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && slice[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], slice[1]);
+            } else {
+                merged.add(slice);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Returns the ranges to honour, or an empty list when the full body must be sent:
+     * no Range header, an unparseable one, or an If-Range validator that no longer matches.
+     */
+    private List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !rangeHeader.startsWith("bytes=")) {
+            return List.of();
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRangeMatches(request, ifRange, etag, lastModified)) {
+            return List.of();
+        }
+
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, String ifRange, String etag, long lastModified) {
+        if (ifRange.startsWith("W/")) {
+            return false; // If-Range requires a strong comparison
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void send(Path file, long position, long count, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the bytes itself with sendfile(2) once the request completes
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, position);
+            request.setAttribute(SENDFILE_END, position + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, position, count, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private void sendMultipart(Path file, String contentType, long length, List<long[]> slices,
+                               boolean headOnly, HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+
+        List<byte[]> partHeaders = new ArrayList<>(slices.size());
+        long contentLength = 0;
+        for (long[] slice : slices) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "Content-Range: bytes " + slice[0] + "-" + slice[1] + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + (slice[1] - slice[0] + 1);
+        }
+        byte[] trailer = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += trailer.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (headOnly) {
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < slices.size(); i++) {
+                long[] slice = slices.get(i);
+                out.write(partHeaders.get(i));
+                transfer(channel, slice[0], slice[1] - slice[0] + 1, target);
+            }
+        }
+        out.write(trailer);
+    }
+
+    private void transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        while (count > 0) {
+            long sent = channel.transferTo(position, count, target);
+            if (sent <= 0) {
+                throw new EOFException("File truncated while streaming");
+            }
+            position += sent;
+            count -= sent;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.educare.service;
+
+import com.educare.model.BlobDeletedEvent;
+import com.educare.model.UploadMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Downscaled copies of uploaded images, so list screens can fetch a course cover sized
+ * for its tile instead of the multi-megabyte original. Variants are derived from the
+ * blob, keyed by its SHA-256, written once on a small background pool and kept in the
+ * blob's variant directory; identical uploads share them.
+ *
+ * Generation is queued when an image is stored, and again on the first request for an
+ * image that has none yet (files uploaded before variants existed). Until it finishes,
+ * the original is served. A directory with a done marker is never regenerated; delete
+ * it to force a rebuild.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    private static final String DONE_MARKER = "done";
+    // GIFs may be animated and WebP has no decoder in the JDK; both are served as uploaded
+    private static final Set<String> SOURCE_TYPES = Set.of("image/jpeg", "image/png");
+    private static final long MAX_DECODED_PIXELS = 64L * 1024 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolTaskExecutor imageVariantExecutor;
+    private final int[] widths; // ascending
+    private final float jpegQuality;
+
+    // sha256 -> variants by width; present once generation finished (possibly empty).
+    // Least recently used entries fall out and are re-read from disk on the next request.
+    private final Map<String, NavigableMap<Integer, UploadMetadata>> variants;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(FileStorageService fileStorageService,
+                               @Qualifier("imageVariantExecutor") ThreadPoolTaskExecutor imageVariantExecutor,
+                               @Value("${app.image.variants.widths:320,640,960,1280}") int[] widths,
+                               @Value("${app.image.variants.jpeg-quality:0.8}") float jpegQuality,
+                               @Value("${app.image.variants.cache-size:10000}") int cacheSize) {
+        this.fileStorageService = fileStorageService;
+        this.imageVariantExecutor = imageVariantExecutor;
+        this.widths = Arrays.stream(widths).filter(w -> w > 0).sorted().distinct().toArray();
+        this.jpegQuality = jpegQuality;
+        this.variants = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NavigableMap<Integer, UploadMetadata>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    // The variant files went with the blob; the same bytes uploaded again start over
+    @EventListener
+    public void blobDeleted(BlobDeletedEvent event) {
+        variants.remove(event.getSha256());
+    }
+
+    public boolean supports(UploadMetadata source) {
+        return source != null && SOURCE_TYPES.contains(source.getContentType()) && widths.length > 0;
+    }
+
+    /**
+     * Queues variant generation for a stored upload; anything but a JPEG or PNG is ignored.
+     */
+    public void prepare(UploadMetadata source) {
+        if (!supports(source)) {
+            return;
+        }
+        String sha256 = source.getSha256();
+        if (variants.containsKey(sha256) || !pending.add(sha256)) {
+            return;
+        }
+        try {
+            imageVariantExecutor.execute(() -> {
+                try {
+                    generate(source);
+                } finally {
+                    pending.remove(sha256);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pending.remove(sha256);
+            log.debug("Image variant queue full, skipping {} for now", source.getFilename());
+        }
+    }
+
+    /**
+     * Picks the file to send for a display {@code width} in device pixels: the smallest
+     * variant at least that wide, or the original if none is (or the original is no
+     * wider than the variants). Returns null while variants are not ready yet, in which
+     * case generation has been queued and the caller should send the original without
+     * letting it be cached for long.
+     */
+    public UploadMetadata select(UploadMetadata source, int width) {
+        if (!supports(source)) {
+            return source;
+        }
+        NavigableMap<Integer, UploadMetadata> available = variants.get(source.getSha256());
+        if (available == null) {
+            available = loadIfDone(source);
+            if (available == null) {
+                prepare(source);
+                return null;
+            }
+        }
+        Map.Entry<Integer, UploadMetadata> best = available.ceilingEntry(width);
+        return best != null ? best.getValue() : source;
+    }
+
+    private NavigableMap<Integer, UploadMetadata> loadIfDone(UploadMetadata source) {
+        Path dir = fileStorageService.variantDir(source.getSha256());
+        if (!Files.exists(dir.resolve(DONE_MARKER))) {
+            return null;
+        }
+        try {
+            NavigableMap<Integer, UploadMetadata> loaded = load(dir, source);
+            variants.put(source.getSha256(), loaded);
+            return loaded;
+        } catch (IOException e) {
+            log.warn("Could not list image variants of {}: {}", source.getFilename(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void generate(UploadMetadata source) {
+        Path dir = fileStorageService.variantDir(source.getSha256());
+        if (loadIfDone(source) != null) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir);
+            writeVariants(source, dir);
+        } catch (IOException | RuntimeException e) {
+            // Marked done anyway so a broken image is not decoded again on every request
+            log.warn("Could not build image variants of {}: {}", source.getFilename(), e.getMessage());
+        }
+        try {
+            Files.write(dir.resolve(DONE_MARKER), new byte[0]);
+            variants.put(source.getSha256(), load(dir, source));
+        } catch (IOException e) {
+            log.warn("Could not record image variants of {}: {}", source.getFilename(), e.getMessage());
+        }
+    }
+
+    private void writeVariants(UploadMetadata source, Path dir) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.getPath().toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("no image decoder");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+
+                int largest = 0;
+                for (int width : widths) {
+                    if (width < sourceWidth) {
+                        largest = width;
+                    }
+                }
+                if (largest == 0) {
+                    return; // already small enough; the original is the only size
+                }
+
+                // Decode at reduced resolution, still twice the largest variant so the
+                // final resize has real pixels to average; keeps big photos off the heap
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, sourceWidth / (largest * 2));
+                while ((long) (sourceWidth / subsampling) * (sourceHeight / subsampling) > MAX_DECODED_PIXELS) {
+                    subsampling++;
+                }
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                boolean alpha = image.getColorModel().hasAlpha();
+                // Largest first, each scaled from the previous one
+                for (int i = widths.length - 1; i >= 0; i--) {
+                    int width = widths[i];
+                    if (width > largest) {
+                        continue;
+                    }
+                    int height = Math.max(1, (int) Math.round((double) sourceHeight * width / sourceWidth));
+                    image = scale(image, width, height, alpha);
+                    write(image, alpha, dir.resolve(width + (alpha ? ".png" : ".jpg")));
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Repeated halving with bilinear filtering, so large reductions do not alias
+    private static BufferedImage scale(BufferedImage image, int width, int height, boolean alpha) {
+        BufferedImage current = image;
+        int w = current.getWidth();
+        int h = current.getHeight();
+        while (w != width || h != height) {
+            w = w / 2 > width ? w / 2 : width;
+            h = h / 2 > height ? h / 2 : height;
+            BufferedImage next = new BufferedImage(w, h, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    // Written to a temp file and renamed, so a half-written variant is never served
+    private void write(BufferedImage image, boolean alpha, Path target) throws IOException {
+        Path tmp = fileStorageService.createTemp();
+        try {
+            if (alpha) {
+                ImageIO.write(image, "png", tmp.toFile());
+            } else {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+                    writer.setOutput(out);
+                    ImageWriteParam param = writer.getDefaultWriteParam();
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                    // Progressive: a blurred full tile shows up on slow links before the rest arrives
+                    param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static NavigableMap<Integer, UploadMetadata> load(Path dir, UploadMetadata source) throws IOException {
+        NavigableMap<Integer, UploadMetadata> loaded = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.{jpg,png}")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int dot = name.indexOf('.');
+                int width;
+                try {
+                    width = Integer.parseInt(name.substring(0, dot));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                String contentType = name.endsWith(".png") ? "image/png" : "image/jpeg";
+                // Derived from the source digest, so the validator changes with the source bytes
+                loaded.put(width, new UploadMetadata(source.getFilename(), file, attrs.size(),
+                        attrs.lastModifiedTime().toMillis(), contentType, source.getSha256() + "-w" + width));
+            }
+        }
+        return Collections.unmodifiableNavigableMap(loaded);
+    }
+}
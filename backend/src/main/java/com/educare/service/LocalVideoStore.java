@@ -0,0 +1,110 @@
+package com.educare.service;
+
+import com.educare.model.UploadMetadata;
+import com.educare.model.VideoMetadata;
+import com.educare.util.Mp4Faststart;
+import com.educare.util.Mp4MetadataReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+
+/**
+ * Keeps videos in the upload store and serves them from /uploads/ instead of
+ * publishing them to YouTube (app.video.storage=local). On the way in, MP4/MOV files
+ * whose moov box trails the media data are rewritten with moov first, so playback
+ * and seeking can start from the first range request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LocalVideoStore {
+
+    private static final String UPLOADS = "/uploads/";
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${app.video.storage:youtube}")
+    private String storage;
+
+    @Value("${app.video.faststart:true}")
+    private boolean faststart;
+
+    public boolean isEnabled() {
+        return "local".equalsIgnoreCase(storage);
+    }
+
+    /**
+     * Binds a fully written video into the store under a fresh public name.
+     * Takes ownership of {@code staged}: it is moved into the store or deleted.
+     *
+     * @return the public name, to be served under /uploads/
+     */
+    public String store(Path staged, String originalFilename) throws IOException {
+        Path file = staged;
+        try {
+            String filename = fileStorageService.publicName(originalFilename);
+            String sha256 = null;
+
+            if (faststart) {
+                Path rewritten = fileStorageService.createTemp();
+                try {
+                    MessageDigest digest = UploadMetadataIndex.newDigest();
+                    if (Mp4Faststart.rewrite(staged, rewritten, digest)) {
+                        Files.delete(staged);
+                        file = rewritten;
+                        sha256 = UploadMetadataIndex.toHex(digest);
+                        log.debug("Moved moov to the front of {}", filename);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // Still playable, just not progressively; keep the original
+                    log.warn("Faststart rewrite failed for {}: {}", filename, e.getMessage());
+                } finally {
+                    if (file != rewritten) {
+                        Files.deleteIfExists(rewritten);
+                    }
+                }
+            }
+
+            if (sha256 == null) {
+                sha256 = UploadMetadataIndex.sha256Of(file);
+            }
+            fileStorageService.bind(filename, file, sha256, Files.size(file));
+            return filename;
+        } finally {
+            Files.deleteIfExists(file); // no-op once bound into the store
+        }
+    }
+
+    /**
+     * Header facts of a video stored here, or null if {@code fileUrl} is not one of ours
+     * or cannot be parsed. Only the box headers and moov are read.
+     */
+    public VideoMetadata metadataFor(String fileUrl) {
+        if (fileUrl == null) {
+            return null;
+        }
+        int at = fileUrl.indexOf(UPLOADS);
+        if (at < 0) {
+            return null;
+        }
+        String filename = UriUtils.decode(fileUrl.substring(at + UPLOADS.length()), StandardCharsets.UTF_8);
+        UploadMetadata stored = fileStorageService.lookup(filename);
+        if (stored == null) {
+            return null;
+        }
+        try {
+            return Mp4MetadataReader.read(stored.getPath());
+        } catch (IOException e) {
+            log.warn("Could not read video metadata from {}: {}", filename, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.educare.service;
 
 import com.educare.dto.AddNoteRequest;
+import com.educare.dto.CursorPage;
 import com.educare.dto.NoteResponse;
 import com.educare.dto.ReplyResponse;
 import com.educare.entity.Course;
@@ -8,11 +9,14 @@ import com.educare.entity.Note;
 import com.educare.entity.User;
 import com.educare.repository.CourseRepository;
 import com.educare.repository.NoteRepository;
+import com.educare.util.PageCursors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -54,6 +58,10 @@ public class NoteService {
      * Convert Note entity → DTO
      */
     private NoteResponse toNoteResponse(Note note) {
+        return toNoteResponse(note, note.getReplies());
+    }
+
+    private NoteResponse toNoteResponse(Note note, List<Note> replies) {
         NoteResponse dto = new NoteResponse();
         dto.setId(note.getId());
         dto.setTitle(note.getTitle());
@@ -64,9 +72,9 @@ public class NoteService {
         dto.setUserName(note.getUser().getName());
         dto.setCreatedAt(note.getCreatedAt());
 
-        if (note.getReplies() != null && !note.getReplies().isEmpty()) {
+        if (replies != null && !replies.isEmpty()) {
             dto.setReplies(
-                    note.getReplies().stream()
+                    replies.stream()
                             .map(this::toReplyResponse)
                             .collect(Collectors.toList())
             );
@@ -89,14 +97,24 @@ public class NoteService {
     }
 
     /**
-     * Fetch all main notes for a course with replies
+     * Fetch one keyset page of main notes for a course, with replies
      */
-    public List<NoteResponse> getNotesByCourse(Long courseId) {
-        List<Note> mainNotes = noteRepository.findByCourseIdAndParentNoteIsNull(courseId);
-
-        return mainNotes.stream()
-                .map(this::toNoteResponse)
+    public CursorPage<NoteResponse> getNotesByCourse(Long courseId, String cursor, int limit) {
+        CursorPage<Note> page = CursorPage.of(
+                noteRepository.findMainNotesAfter(courseId, PageCursors.decode(cursor), Limit.of(limit + 1)),
+                limit, Note::getId);
+
+        // All replies for the page in one query instead of one per note
+        Map<Long, List<Note>> replies = page.getItems().isEmpty()
+                ? Map.of()
+                : noteRepository.findRepliesWithUser(page.getItems().stream().map(Note::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(r -> r.getParentNote().getId()));
+
+        List<NoteResponse> notes = page.getItems().stream()
+                .map(n -> toNoteResponse(n, replies.get(n.getId())))
                 .collect(Collectors.toList());
+        return new CursorPage<>(notes, page.getNextCursor());
     }
     /**
      * Get a single note by ID
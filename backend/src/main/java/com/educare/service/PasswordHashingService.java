@@ -0,0 +1,49 @@
+package com.educare.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs BCrypt off the request threads. Hashing is CPU-bound, so it gets a pool
+ * sized to the cores with a short queue; once that is full new work is refused
+ * at once (TaskRejectedException, answered with 503) instead of queueing behind
+ * a login storm while every Tomcat thread waits.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashExecutor;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor passwordHashExecutor) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashExecutor = passwordHashExecutor;
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) throws TaskRejectedException {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), passwordHashExecutor);
+    }
+
+    /**
+     * Checks a password against its stored hash. When it matches and the hash was made
+     * with a lower cost than configured, the result also carries a fresh hash to store.
+     */
+    public CompletableFuture<Verification> verify(String rawPassword, String storedHash) throws TaskRejectedException {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!passwordEncoder.matches(rawPassword, storedHash)) {
+                return new Verification(false, null);
+            }
+            String upgraded = passwordEncoder.upgradeEncoding(storedHash) ? passwordEncoder.encode(rawPassword) : null;
+            return new Verification(true, upgraded);
+        }, passwordHashExecutor);
+    }
+
+    public record Verification(boolean matches, String upgradedHash) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.educare.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Background move of the old flat layouts into the sharded blob store:
+ * legacy files directly under app.upload.dir become aliases of sharded blobs,
+ * and blobs stored flat under .blobs/ move into their buckets.
+ *
+ * Files are hard-linked into place first and their old names removed in batches,
+ * after the metadata index has let go of them, so both layouts stay readable
+ * throughout. Every step is idempotent; a pass cut short by a restart just
+ * continues with whatever is still flat.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadLayoutMigrator {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    // Leave files alone while something may still be copying them in
+    private static final long SETTLE_MILLIS = 60_000;
+
+    private final FileStorageService fileStorageService;
+    private final UploadMetadataIndex uploadMetadataIndex;
+
+    @Value("${app.upload.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upload.migration.pause-ms:0}")
+    private long pauseMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread migrator = new Thread(this::run, "upload-layout-migrator");
+        migrator.setDaemon(true);
+        migrator.setPriority(Thread.MIN_PRIORITY);
+        migrator.start();
+    }
+
+    private void run() {
+        Path root = fileStorageService.root();
+        long legacy = migrate(root, this::isLegacyFile, this::linkLegacyFile);
+        long blobs = migrate(root.resolve(".blobs"), this::isFlatBlob, this::linkFlatBlob);
+        if (legacy > 0 || blobs > 0) {
+            log.info("Upload layout migration done: {} legacy files, {} flat blobs", legacy, blobs);
+        }
+    }
+
+    private long migrate(Path dir, DirectoryStream.Filter<Path> filter, Linker linker) {
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+
+        long migrated = 0;
+        List<Path> batch = new ArrayList<>(BATCH_SIZE);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, filter)) {
+            for (Path file : files) {
+                try {
+                    linker.link(file);
+                    batch.add(file);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not migrate {}: {}", file, e.getMessage());
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    migrated += finish(batch);
+                }
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Upload layout migration of {} stopped: {}", dir, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return migrated + finish(batch);
+    }
+
+    // Old names go only after the index stops handing them out
+    private int finish(List<Path> batch) {
+        uploadMetadataIndex.evictPaths(new HashSet<>(batch));
+        for (Path file : batch) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not remove migrated file {}: {}", file, e.getMessage());
+            }
+        }
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    private boolean isLegacyFile(Path file) throws IOException {
+        return Files.isRegularFile(file)
+                && !file.getFileName().toString().startsWith(".")
+                && Files.getLastModifiedTime(file).toMillis() < System.currentTimeMillis() - SETTLE_MILLIS;
+    }
+
+    private boolean isFlatBlob(Path file) {
+        return Files.isRegularFile(file) && SHA256.matcher(file.getFileName().toString()).matches();
+    }
+
+    private void linkLegacyFile(Path file) throws IOException {
+        String sha256 = UploadMetadataIndex.sha256Of(file);
+        // Alias first: until the blob lands, lookups still fall back to the flat file
+        fileStorageService.registerAlias(file.getFileName().toString(), sha256, Files.size(file));
+        link(file, fileStorageService.blobPath(sha256));
+    }
+
+    private void linkFlatBlob(Path blob) throws IOException {
+        link(blob, fileStorageService.blobPath(blob.getFileName().toString()));
+    }
+
+    private void link(Path existing, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, existing);
+        } catch (FileAlreadyExistsException e) {
+            // already in place
+        } catch (UnsupportedOperationException e) {
+            Path part = target.resolveSibling(target.getFileName() + ".part");
+            Files.copy(existing, part, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Linker {
+        void link(Path file) throws IOException;
+    }
+}
@@ -0,0 +1,232 @@
+package com.educare.service;
+
+import com.educare.model.UploadMetadata;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of everything under app.upload.dir (size, mtime, MIME type, SHA-256).
+ * Writers register files as they store them; a WatchService picks up anything
+ * changed behind our back (manual copies, deletes, other processes).
+ * Entries are keyed by public name, so an alias and the blob it points to
+ * share one entry per name.
+ */
+@Slf4j
+@Service
+public class UploadMetadataIndex {
+
+    @Value("${app.upload.dir}")
+    private String uploadDir;
+
+    private final Map<String, UploadMetadata> entries = new ConcurrentHashMap<>();
+
+    private Path root;
+    private WatchService watchService;
+
+    @PostConstruct
+    public void start() throws IOException {
+        root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        // Register before the initial scan so nothing written in between is missed
+        watchService = root.getFileSystem().newWatchService();
+        root.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread watcher = new Thread(this::watch, "upload-index-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * Returns the indexed entry for a public name, or null if it is not indexed yet.
+     */
+    public UploadMetadata get(String filename) {
+        return entries.get(filename);
+    }
+
+    /**
+     * Returns metadata for a file stored directly under the upload directory,
+     * indexing it on the spot if the watcher has not seen it yet.
+     * Returns null if there is no such file, or it changed while being hashed
+     * (the watcher indexes it once the writer is done).
+     */
+    public UploadMetadata lookup(String filename) {
+        UploadMetadata cached = entries.get(filename);
+        if (cached != null) {
+            return cached;
+        }
+
+        Path file = resolve(filename);
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return index(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Records a file that was just written, using the digest computed while writing it.
+     *
+     * @param filename Public name the file is served under
+     * @param file     Where the bytes actually live
+     * @param sha256   Hex digest of the file body
+     */
+    public UploadMetadata record(String filename, Path file, String sha256) throws IOException {
+        return put(filename, file, Files.readAttributes(file, BasicFileAttributes.class), sha256);
+    }
+
+    private UploadMetadata put(String filename, Path file, BasicFileAttributes attrs, String sha256)
+            throws IOException {
+        String contentType = Files.probeContentType(Paths.get(filename));
+        if (contentType == null) {
+            contentType = "application/octet-stream";
+        }
+
+        UploadMetadata metadata = new UploadMetadata(filename, file, attrs.size(),
+                attrs.lastModifiedTime().toMillis(), contentType, sha256);
+        entries.put(filename, metadata);
+        return metadata;
+    }
+
+    public void evict(String filename) {
+        entries.remove(filename);
+    }
+
+    // Drops every entry backed by one of these files, whatever name it is served under
+    public void evictPaths(Set<Path> paths) {
+        entries.values().removeIf(metadata -> paths.contains(metadata.getPath()));
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String toHex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Path resolve(String filename) {
+        Path file = root.resolve(filename).normalize();
+        return file.startsWith(root) ? file : null;
+    }
+
+    public static String sha256Of(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return toHex(digest);
+    }
+
+    // Size and mtime are read before hashing and checked again after, so a file that is
+    // still being written is never recorded with a digest of only part of its bytes
+    private UploadMetadata index(Path file) throws IOException {
+        BasicFileAttributes before = Files.readAttributes(file, BasicFileAttributes.class);
+        String sha256 = sha256Of(file);
+        BasicFileAttributes after = Files.readAttributes(file, BasicFileAttributes.class);
+        if (before.size() != after.size() || !before.lastModifiedTime().equals(after.lastModifiedTime())) {
+            throw new IOException(file + " changed while hashing");
+        }
+        return put(root.relativize(file).toString(), file, before, sha256);
+    }
+
+    // Re-hash only when size or mtime moved; our own writes are already recorded
+    private void refresh(Path file) {
+        String filename = root.relativize(file).toString();
+        try {
+            if (!Files.isRegularFile(file)) {
+                entries.remove(filename);
+                return;
+            }
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            UploadMetadata existing = entries.get(filename);
+            if (existing != null
+                    && existing.getSize() == attrs.size()
+                    && existing.getLastModified() == attrs.lastModifiedTime().toMillis()) {
+                return;
+            }
+            index(file);
+        } catch (IOException e) {
+            entries.remove(filename);
+        }
+    }
+
+    private void rescan() {
+        entries.values().removeIf(metadata -> !Files.isRegularFile(metadata.getPath()));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root)) {
+            for (Path file : files) {
+                refresh(file);
+            }
+        } catch (IOException e) {
+            log.warn("Upload index scan of {} failed: {}", root, e.getMessage());
+        }
+    }
+
+    private void watch() {
+        rescan();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescan();
+                        continue;
+                    }
+                    Path file = root.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        entries.remove(root.relativize(file).toString());
+                    } else {
+                        refresh(file);
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Upload directory {} is no longer watchable", root);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.educare.service;
 
 import com.educare.entity.User;
-import com.educare.repository.UserRepository;
+import com.educare.security.UserPrincipalCache;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -9,22 +9,28 @@ import org.springframework.stereotype.Service;
 @Service
 public class UserService {
 
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
-    public UserService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public UserService(UserPrincipalCache userPrincipalCache) {
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     // Get currently authenticated user
     public User getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (principal instanceof User user) {
+            return user; // already resolved by JwtAuthenticationFilter
+        }
         String email;
         if (principal instanceof UserDetails) {
             email = ((UserDetails) principal).getUsername();
         } else {
             email = principal.toString();
         }
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userPrincipalCache.get(email);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        return user;
     }
 }
@@ -0,0 +1,299 @@
+package com.educare.service;
+
+import com.educare.dto.VideoPublishJobResponse;
+import com.educare.entity.User;
+import com.educare.entity.VideoPublishJob;
+import com.educare.model.VideoMetadata;
+import com.educare.repository.VideoPublishJobRepository;
+import com.educare.util.Mp4MetadataReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Publishes uploaded videos to YouTube in the background. The upload request only
+ * stages the file and records a job; a small worker pool does the slow upload,
+ * while the client polls the job for its status. A transient failure puts the job
+ * back in the queue after a backoff delay, so no worker sits idle waiting it out.
+ */
+@Slf4j
+@Service
+public class VideoPublishService {
+
+    private final VideoPublishJobRepository videoPublishJobRepository;
+    private final VideoUploader videoUploader;
+    private final FileStorageService fileStorageService;
+    private final TaskExecutor videoPublishExecutor;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${app.video.publish.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.video.publish.backoff:5s}")
+    private Duration backoff;
+
+    @Value("${app.video.publish.max-backoff:2m}")
+    private Duration maxBackoff;
+
+    public VideoPublishService(VideoPublishJobRepository videoPublishJobRepository,
+                               VideoUploader videoUploader,
+                               FileStorageService fileStorageService,
+                               @Qualifier("videoPublishExecutor") TaskExecutor videoPublishExecutor,
+                               TaskScheduler taskScheduler) {
+        this.videoPublishJobRepository = videoPublishJobRepository;
+        this.videoUploader = videoUploader;
+        this.fileStorageService = fileStorageService;
+        this.videoPublishExecutor = videoPublishExecutor;
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * Records a publishing job for a staged video and queues it. The job takes
+     * ownership of {@code stagedVideo} and deletes it once it is finished.
+     *
+     * @param owner         Teacher who uploaded the video
+     * @param stagedVideo   Video file in the upload store's temp area
+     * @param title         Video title
+     * @param thumbnail     Optional thumbnail bytes (null if none)
+     * @param thumbnailType Thumbnail MIME type
+     * @throws TaskRejectedException if the publishing queue is full; no job is kept and
+     *                               {@code stagedVideo} is left to the caller
+     */
+    public VideoPublishJob submit(User owner, Path stagedVideo, String title,
+                                  byte[] thumbnail, String thumbnailType) throws IOException {
+        Path stagedThumbnail = null;
+        if (thumbnail != null && thumbnail.length > 0) {
+            stagedThumbnail = fileStorageService.stageTemp(new ByteArrayInputStream(thumbnail));
+        }
+
+        // Header boxes only, so this costs milliseconds even for multi-GB files
+        VideoMetadata metadata = null;
+        try {
+            metadata = Mp4MetadataReader.read(stagedVideo);
+        } catch (IOException e) {
+            log.warn("Could not read video metadata of '{}': {}", title, e.getMessage());
+        }
+
+        VideoPublishJob job = videoPublishJobRepository.save(VideoPublishJob.builder()
+                .ownerId(owner.getId())
+                .title(title)
+                .stagedPath(stagedVideo.toString())
+                .thumbnailPath(stagedThumbnail != null ? stagedThumbnail.toString() : null)
+                .thumbnailContentType(thumbnailType)
+                .status(VideoPublishJob.QUEUED)
+                .durationSeconds(metadata != null ? metadata.getDurationSeconds() : null)
+                .videoWidth(metadata != null ? metadata.getWidth() : null)
+                .videoHeight(metadata != null ? metadata.getHeight() : null)
+                .videoCodec(metadata != null ? metadata.getVideoCodec() : null)
+                .bitrate(metadata != null ? metadata.getBitrate() : null)
+                .build());
+
+        try {
+            enqueue(job.getId());
+        } catch (TaskRejectedException e) {
+            // The client is told to retry, so nothing is left behind as a failed job
+            videoPublishJobRepository.delete(job);
+            deleteQuietly(job.getThumbnailPath());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * The finished job that published {@code url}, so content pointing at it can
+     * inherit the metadata read at upload time.
+     */
+    public Optional<VideoPublishJob> findPublished(String url) {
+        return videoPublishJobRepository.findFirstByUrlAndStatusOrderByIdDesc(url, VideoPublishJob.SUCCEEDED);
+    }
+
+    public VideoPublishJobResponse getJob(Long jobId, User user) {
+        VideoPublishJob job = videoPublishJobRepository.findById(jobId)
+                .filter(j -> j.getOwnerId().equals(user.getId()))
+                .orElseThrow(() -> new RuntimeException("Video job not found"));
+        return toResponse(job);
+    }
+
+    /**
+     * Picks up jobs that were queued or running when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<VideoPublishJob> pending = videoPublishJobRepository.findByStatusIn(
+                List.of(VideoPublishJob.QUEUED, VideoPublishJob.UPLOADING));
+        for (VideoPublishJob job : pending) {
+            if (job.getVideoId() == null
+                    && (job.getStagedPath() == null || !Files.exists(Paths.get(job.getStagedPath())))) {
+                fail(job, "Staged video was lost before publishing");
+                continue;
+            }
+            try {
+                enqueue(job.getId());
+            } catch (TaskRejectedException e) {
+                fail(job, "Publishing queue is full");
+                cleanup(job);
+            }
+        }
+    }
+
+    private void enqueue(Long jobId) {
+        videoPublishExecutor.execute(() -> run(jobId));
+    }
+
+    // One attempt per run; a retry is a fresh task queued once its backoff has passed
+    private void run(Long jobId) {
+        VideoPublishJob job = videoPublishJobRepository.findById(jobId).orElse(null);
+        if (job == null || VideoPublishJob.SUCCEEDED.equals(job.getStatus())
+                || VideoPublishJob.FAILED.equals(job.getStatus())) {
+            return;
+        }
+
+        try {
+            job.setStatus(VideoPublishJob.UPLOADING);
+            job.setAttempts(job.getAttempts() + 1);
+            job = save(job);
+            try {
+                publish(job);
+                job.setStatus(VideoPublishJob.SUCCEEDED);
+                job.setProgressPercent(100);
+                job.setUrl("https://youtu.be/" + job.getVideoId());
+                job.setError(null);
+                save(job);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                if (job.getAttempts() >= maxAttempts) {
+                    fail(job, e.getMessage());
+                    return;
+                }
+                job.setStatus(VideoPublishJob.QUEUED);
+                job.setError(e.getMessage());
+                save(job);
+                retryLater(jobId, retryDelay(job.getAttempts()));
+            }
+        } catch (InterruptedIOException e) {
+            // Shutting down; the job stays UPLOADING and is resumed on the next start
+            Thread.currentThread().interrupt();
+        } finally {
+            VideoPublishJob latest = videoPublishJobRepository.findById(jobId).orElse(null);
+            if (latest != null && (VideoPublishJob.SUCCEEDED.equals(latest.getStatus())
+                    || VideoPublishJob.FAILED.equals(latest.getStatus()))) {
+                cleanup(latest);
+            }
+        }
+    }
+
+    // A QUEUED job whose timer is lost to a restart is picked up by resumePending
+    private void retryLater(Long jobId, Duration delay) {
+        taskScheduler.schedule(() -> {
+            try {
+                enqueue(jobId);
+            } catch (TaskRejectedException e) {
+                videoPublishJobRepository.findById(jobId).ifPresent(job -> {
+                    fail(job, "Publishing queue is full");
+                    cleanup(job);
+                });
+            }
+        }, Instant.now().plus(delay));
+    }
+
+    private void publish(VideoPublishJob job) throws IOException {
+        // A retry after the video went up only needs to redo the thumbnail
+        if (job.getVideoId() == null) {
+            job.setProgressPercent(0);
+            String videoId = videoUploader.uploadVideo(
+                    job.getStagedPath(),
+                    job.getTitle(),
+                    "Uploaded via Educare",
+                    new String[]{},    // tags, empty for now
+                    "unlisted",        // privacy
+                    (sent, total) -> reportProgress(job, sent, total)
+            );
+            job.setVideoId(videoId);
+            save(job);
+        }
+
+        if (job.getThumbnailPath() != null) {
+            byte[] thumbnail = Files.readAllBytes(Paths.get(job.getThumbnailPath()));
+            videoUploader.uploadThumbnail(job.getVideoId(), job.getThumbnailContentType(), thumbnail);
+        }
+    }
+
+    // Written only when the whole percentage moves, so a chunk costs at most one update
+    private void reportProgress(VideoPublishJob job, long sent, long total) {
+        int percent = total > 0 ? (int) Math.min(99, sent * 100 / total) : 0;
+        if (percent != job.getProgressPercent()) {
+            job.setProgressPercent(percent);
+            save(job);
+        }
+    }
+
+    private Duration retryDelay(int attempt) {
+        long millis = backoff.toMillis() << Math.min(attempt - 1, 20);
+        return Duration.ofMillis(Math.min(millis, maxBackoff.toMillis()));
+    }
+
+    private void fail(VideoPublishJob job, String error) {
+        job.setStatus(VideoPublishJob.FAILED);
+        job.setError(error);
+        save(job);
+    }
+
+    private VideoPublishJob save(VideoPublishJob job) {
+        job.setUpdatedAt(LocalDateTime.now());
+        return videoPublishJobRepository.save(job);
+    }
+
+    private void cleanup(VideoPublishJob job) {
+        deleteQuietly(job.getStagedPath());
+        deleteQuietly(job.getThumbnailPath());
+    }
+
+    private void deleteQuietly(String path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(path));
+        } catch (IOException ignored) {
+            // left for the next .tmp cleanup
+        }
+    }
+
+    private VideoPublishJobResponse toResponse(VideoPublishJob job) {
+        return VideoPublishJobResponse.builder()
+                .id(job.getId())
+                .title(job.getTitle())
+                .status(job.getStatus())
+                .progressPercent(job.getProgressPercent())
+                .attempts(job.getAttempts())
+                .url(job.getUrl())
+                .error(job.getError())
+                .durationSeconds(job.getDurationSeconds())
+                .videoWidth(job.getVideoWidth())
+                .videoHeight(job.getVideoHeight())
+                .videoCodec(job.getVideoCodec())
+                .bitrate(job.getBitrate())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .build();
+    }
+}
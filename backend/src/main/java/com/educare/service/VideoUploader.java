@@ -0,0 +1,35 @@
+package com.educare.service;
+
+import java.io.IOException;
+
+/**
+ * Destination for published lecture videos. {@link YouTubeUploadService} is the real
+ * one; set app.video.uploader=fake to run the publishing pipeline against
+ * {@link FakeVideoUploader} instead.
+ */
+public interface VideoUploader {
+
+    /**
+     * Uploads a video and returns its id on the destination platform.
+     */
+    default String uploadVideo(String filePath, String title, String description, String[] tags, String privacy)
+            throws IOException {
+        return uploadVideo(filePath, title, description, tags, privacy, (sent, total) -> { });
+    }
+
+    /**
+     * Uploads a video, reporting progress as bytes are acknowledged by the destination.
+     */
+    String uploadVideo(String filePath, String title, String description, String[] tags, String privacy,
+                       ProgressListener progress) throws IOException;
+
+    void uploadThumbnail(String videoId, String contentType, byte[] thumbnail) throws IOException;
+
+    /**
+     * Receives upload progress. Called from the uploading thread.
+     */
+    @FunctionalInterface
+    interface ProgressListener {
+        void onProgress(long bytesSent, long totalBytes);
+    }
+}
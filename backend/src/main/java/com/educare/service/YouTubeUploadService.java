@@ -1,27 +1,60 @@
 package com.educare.service;
 
 import com.educare.util.YouTubeAuth;
+import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
+import com.google.api.client.googleapis.media.MediaHttpUploader;
+import com.google.api.client.http.ByteArrayContent;
 import com.google.api.client.http.InputStreamContent;
+import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.services.youtube.YouTube;
 import com.google.api.services.youtube.model.Video;
 import com.google.api.services.youtube.model.VideoStatus;
 import com.google.api.services.youtube.model.VideoSnippet;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 
-import org.springframework.web.multipart.MultipartFile;
+import java.io.BufferedInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Arrays;
 
+@Slf4j
 @Service
-public class YouTubeUploadService {
+@ConditionalOnProperty(name = "app.video.uploader", havingValue = "youtube", matchIfMissing = true)
+public class YouTubeUploadService implements VideoUploader {
 
     private final String clientId;
     private final String clientSecret;
     private final String refreshToken;
 
-    private YouTube youtube; // not final, allow lazy init
+    // Resumable upload chunk; each one is buffered in memory so it can be re-sent
+    @Value("${app.youtube.upload.chunk-size:8MB}")
+    private DataSize chunkSize;
+
+    @Value("${app.youtube.upload.retry-window:2m}")
+    private Duration retryWindow;
+
+    // Points the client at another API root, e.g. the local fake endpoint for benchmarks
+    @Value("${app.youtube.root-url:}")
+    private String rootUrl;
+
+    // Refreshed ahead of expiry so no upload waits on the token endpoint
+    @Value("${app.youtube.token-refresh-margin:PT5M}")
+    private Duration tokenRefreshMargin;
+
+    // Built once at startup and shared by all uploads; both are thread-safe
+    private GoogleCredential credential; // null when talking to a custom root
+    private YouTube youtube;
 
     public YouTubeUploadService(
             @Value("${GOOGLE_REFRESH_TOKEN}") String refreshToken,
@@ -32,12 +65,38 @@ public class YouTubeUploadService {
         this.clientSecret = clientSecret;
     }
 
-    private YouTube getService() throws IOException {
-        if (this.youtube == null) {
-            System.out.println("INSIDE ...................");
-            this.youtube = YouTubeAuth.getYouTubeService(refreshToken, clientId, clientSecret);
+    @PostConstruct
+    void init() {
+        // One transport for the credential and the client: one pool of keep-alive connections
+        NetHttpTransport transport = new NetHttpTransport();
+        boolean customRoot = StringUtils.hasText(rootUrl);
+        if (!customRoot) {
+            credential = YouTubeAuth.getCredential(transport, refreshToken, clientId, clientSecret);
+        }
+        youtube = YouTubeAuth.getYouTubeService(transport, credential,
+                customRoot ? rootUrl : null, (int) retryWindow.toMillis());
+    }
+
+    /**
+     * Keeps the access token fresh in the background. Runs once at startup to fetch
+     * the first token, then refreshes whenever less than the margin is left.
+     */
+    @Scheduled(fixedDelayString = "${app.youtube.token-check-interval:PT1M}")
+    public void refreshAccessToken() {
+        if (credential == null) {
+            return;
+        }
+        Long expiresIn = credential.getExpiresInSeconds();
+        if (credential.getAccessToken() != null && expiresIn != null
+                && expiresIn > tokenRefreshMargin.toSeconds()) {
+            return;
+        }
+        try {
+            credential.refreshToken();
+        } catch (IOException e) {
+            // requests still refresh on demand if this keeps failing
+            log.warn("YouTube access token refresh failed: {}", e.getMessage());
         }
-        return this.youtube;
     }
 
     /**
@@ -48,15 +107,18 @@ public class YouTubeUploadService {
      * @param description  Video description
      * @param tags         Video tags
      * @param privacy      Privacy status: "public", "private", or "unlisted"
+     * @param progress     Notified after every chunk the server acknowledges
      * @return Uploaded video ID
      * @throws IOException if upload fails
      */
+    @Override
     public String uploadVideo(
             String filePath,
             String title,
             String description,
             String[] tags,
-            String privacy) throws IOException {
+            String privacy,
+            ProgressListener progress) throws IOException {
 
         // Create snippet
         VideoSnippet snippet = new VideoSnippet();
@@ -73,22 +135,35 @@ public class YouTubeUploadService {
         video.setSnippet(snippet);
         video.setStatus(status);
 
-        // Upload
-        try (FileInputStream fileInputStream = new FileInputStream(filePath)) {
-            InputStreamContent mediaContent = new InputStreamContent("video/*", fileInputStream);
+        // Upload; the length must be known for the client to use a resumable session
+        long length = Files.size(Paths.get(filePath));
+        try (InputStream in = new BufferedInputStream(new FileInputStream(filePath))) {
+            InputStreamContent mediaContent = new InputStreamContent("video/*", in);
+            mediaContent.setLength(length);
 
             String parts = "snippet,status";
-            YouTube.Videos.Insert request = getService().videos().insert(parts, video, mediaContent);
+            YouTube.Videos.Insert request = youtube.videos().insert(parts, video, mediaContent);
+
+            MediaHttpUploader uploader = request.getMediaHttpUploader();
+            uploader.setDirectUploadEnabled(false);
+            uploader.setChunkSize(alignedChunkSize());
+            uploader.setProgressListener(u -> progress.onProgress(u.getNumBytesUploaded(), length));
 
             Video response = request.execute();
             return response.getId();
         }
     }
-    public void uploadThumbnail(String videoId, MultipartFile thumbnail) throws IOException {
-        InputStreamContent mediaContent = new InputStreamContent(
-                thumbnail.getContentType(),
-                thumbnail.getInputStream()
-        );
+
+    // The protocol requires chunks in multiples of 256 KB
+    private int alignedChunkSize() {
+        long requested = Math.min(chunkSize.toBytes(), Integer.MAX_VALUE / 2);
+        long aligned = requested / MediaHttpUploader.MINIMUM_CHUNK_SIZE * MediaHttpUploader.MINIMUM_CHUNK_SIZE;
+        return (int) Math.max(aligned, MediaHttpUploader.MINIMUM_CHUNK_SIZE);
+    }
+
+    @Override
+    public void uploadThumbnail(String videoId, String contentType, byte[] thumbnail) throws IOException {
+        ByteArrayContent mediaContent = new ByteArrayContent(contentType, thumbnail);
 
         YouTube.Thumbnails.Set thumbnailRequest = youtube.thumbnails()
                 .set(videoId, mediaContent);
@@ -0,0 +1,247 @@
+package com.educare.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves the moov box of an MP4/MOV file in front of the media data ("faststart"),
+ * so a player can start after fetching the first few hundred KB instead of
+ * seeking to the end of the file. Chunk offsets in stco/co64 are shifted by the
+ * size of the moved box.
+ *
+ * Memory is bounded by the moov box plus one copy buffer; the media data is read
+ * once, sequentially, and written once.
+ */
+public final class Mp4Faststart {
+
+    private static final long MAX_MOOV_SIZE = 64L * 1024 * 1024;
+    private static final int MAX_TOP_LEVEL_BOXES = 1024;
+    private static final int COPY_BUFFER_SIZE = 1024 * 1024;
+
+    private Mp4Faststart() {
+    }
+
+    /**
+     * Writes a faststart copy of {@code source} to {@code target}, feeding every byte
+     * written into {@code digest} so the caller needs no second pass to hash it.
+     *
+     * @return false, with nothing written, if the file needs no rewrite (moov already
+     *         first) or cannot be rewritten safely (not ISO BMFF, fragmented,
+     *         compressed moov, 32-bit offsets that would overflow)
+     */
+    public static boolean rewrite(Path source, Path target, MessageDigest digest) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long fileSize = in.size();
+            List<Box> boxes = topLevelBoxes(in, fileSize);
+            if (boxes == null) {
+                return false;
+            }
+
+            Box moov = null;
+            Box firstMdat = null;
+            for (Box box : boxes) {
+                switch (box.type) {
+                    case "moov" -> moov = box;
+                    case "mdat" -> {
+                        if (firstMdat == null) {
+                            firstMdat = box;
+                        }
+                    }
+                    case "moof" -> {
+                        return false; // fragmented: fragments carry their own offsets, and stream already
+                    }
+                    default -> {
+                        // copied as is
+                    }
+                }
+            }
+            if (moov == null || firstMdat == null || moov.offset < firstMdat.offset) {
+                return false;
+            }
+            if (moov.size > MAX_MOOV_SIZE) {
+                throw new IOException("MP4 moov box too large: " + moov.size + " bytes");
+            }
+
+            ByteBuffer moovBox = ByteBuffer.allocate((int) moov.size);
+            readFully(in, moovBox, moov.offset);
+            moovBox.flip();
+
+            // Everything from the first mdat up to the old moov ends up moov.size bytes later
+            Shift shift = new Shift(firstMdat.offset, moov.offset, moov.size);
+            if (!shiftChunkOffsets(moovBox, moov.headerSize, moovBox.limit(), shift)) {
+                return false;
+            }
+
+            try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+                copy(in, 0, firstMdat.offset, out, buffer, digest);
+                write(out, moovBox, digest);
+                copy(in, firstMdat.offset, moov.offset - firstMdat.offset, out, buffer, digest);
+                long afterMoov = moov.offset + moov.size;
+                copy(in, afterMoov, fileSize - afterMoov, out, buffer, digest);
+            }
+            return true;
+        }
+    }
+
+    private static List<Box> topLevelBoxes(FileChannel in, long fileSize) throws IOException {
+        List<Box> boxes = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(16);
+        long pos = 0;
+        while (fileSize - pos >= 8) {
+            if (boxes.size() == MAX_TOP_LEVEL_BOXES) {
+                return null;
+            }
+            header.clear().limit(8);
+            readFully(in, header, pos);
+            long size = Integer.toUnsignedLong(header.getInt(0));
+            byte[] fourcc = new byte[4];
+            header.get(4, fourcc);
+            String type = new String(fourcc, StandardCharsets.ISO_8859_1);
+
+            int headerSize = 8;
+            if (size == 1) {
+                header.limit(16);
+                readFully(in, header, pos); // continues at offset 8
+                size = header.getLong(8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = fileSize - pos;
+            }
+            if (size < headerSize || size > fileSize - pos) {
+                return null; // corrupt or not ISO BMFF; leave the file alone
+            }
+            boxes.add(new Box(type, pos, size, headerSize));
+            pos += size;
+        }
+        return boxes;
+    }
+
+    /**
+     * Rewrites every stco/co64 entry under [start, end) of the moov box in place.
+     * Returns false if the box is compressed or a 32-bit offset would overflow.
+     */
+    private static boolean shiftChunkOffsets(ByteBuffer buf, int start, int end, Shift shift) {
+        int pos = start;
+        while (end - pos >= 8) {
+            long size = Integer.toUnsignedLong(buf.getInt(pos));
+            byte[] fourcc = new byte[4];
+            buf.get(pos + 4, fourcc);
+            String type = new String(fourcc, StandardCharsets.ISO_8859_1);
+            int headerSize = 8;
+            if (size == 1) {
+                if (end - pos < 16) {
+                    return false;
+                }
+                size = buf.getLong(pos + 8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = end - pos;
+            }
+            if (size < headerSize || size > end - pos) {
+                return false;
+            }
+            int body = pos + headerSize;
+            int bodyEnd = (int) (pos + size);
+
+            switch (type) {
+                case "trak", "mdia", "minf", "stbl" -> {
+                    if (!shiftChunkOffsets(buf, body, bodyEnd, shift)) {
+                        return false;
+                    }
+                }
+                case "cmov" -> {
+                    return false;
+                }
+                case "stco" -> {
+                    // version/flags, entry_count, then 32-bit offsets
+                    if (bodyEnd - body < 8) {
+                        return false;
+                    }
+                    long count = Integer.toUnsignedLong(buf.getInt(body + 4));
+                    if (count * 4 > bodyEnd - body - 8) {
+                        return false;
+                    }
+                    for (int i = 0; i < count; i++) {
+                        int at = body + 8 + i * 4;
+                        long offset = shift.apply(Integer.toUnsignedLong(buf.getInt(at)));
+                        if (offset > 0xFFFFFFFFL) {
+                            return false;
+                        }
+                        buf.putInt(at, (int) offset);
+                    }
+                }
+                case "co64" -> {
+                    if (bodyEnd - body < 8) {
+                        return false;
+                    }
+                    long count = Integer.toUnsignedLong(buf.getInt(body + 4));
+                    if (count * 8 > bodyEnd - body - 8) {
+                        return false;
+                    }
+                    for (int i = 0; i < count; i++) {
+                        int at = body + 8 + i * 8;
+                        buf.putLong(at, shift.apply(buf.getLong(at)));
+                    }
+                }
+                default -> {
+                    // no file offsets inside
+                }
+            }
+            pos = bodyEnd;
+        }
+        return true;
+    }
+
+    private static void copy(FileChannel in, long position, long count, FileChannel out,
+                             ByteBuffer buffer, MessageDigest digest) throws IOException {
+        long end = position + count;
+        while (position < end) {
+            buffer.clear();
+            if (end - position < buffer.capacity()) {
+                buffer.limit((int) (end - position));
+            }
+            int read = in.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("MP4 file truncated while copying");
+            }
+            position += read;
+            buffer.flip();
+            write(out, buffer, digest);
+        }
+    }
+
+    private static void write(FileChannel out, ByteBuffer buffer, MessageDigest digest) throws IOException {
+        digest.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("MP4 file ends inside a box");
+            }
+        }
+    }
+
+    private record Box(String type, long offset, long size, int headerSize) {
+    }
+
+    // Offsets in [from, to) move `by` bytes later in the file; others keep their place
+    private record Shift(long from, long to, long by) {
+        long apply(long offset) {
+            return offset >= from && offset < to ? offset + by : offset;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.educare.util;
+
+import com.educare.model.VideoMetadata;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads duration, resolution, codecs and bitrate from an MP4/MOV (ISO BMFF) file
+ * without scanning it. Only top-level box headers are read, with positional reads,
+ * until the moov box turns up; moov alone is then loaded and parsed in memory.
+ * The media data is never touched, so the cost is a handful of small reads whether
+ * moov sits at the front or behind gigabytes of mdat.
+ */
+public final class Mp4MetadataReader {
+
+    // moov of a multi-hour video is a few MB; anything far beyond that is not a file we want
+    private static final long MAX_MOOV_SIZE = 64L * 1024 * 1024;
+    private static final int MAX_TOP_LEVEL_BOXES = 1024;
+
+    private Mp4MetadataReader() {
+    }
+
+    /**
+     * @return the metadata, or null if the file is not ISO BMFF or has no moov box
+     * @throws IOException if the file cannot be read or a box header is corrupt
+     */
+    public static VideoMetadata read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer moov = findMoov(channel, fileSize);
+            if (moov == null) {
+                return null;
+            }
+
+            Movie movie = new Movie();
+            parseBoxes(moov, 0, moov.limit(), movie, null);
+
+            Double seconds = movie.seconds();
+            Long bitrate = seconds != null && seconds > 0 ? Math.round(fileSize * 8 / seconds) : null;
+            return new VideoMetadata(
+                    seconds != null ? (int) Math.round(seconds) : null,
+                    movie.width,
+                    movie.height,
+                    movie.videoCodec,
+                    movie.audioCodec,
+                    bitrate);
+        }
+    }
+
+    // Walks top-level box headers only, jumping over each body
+    private static ByteBuffer findMoov(FileChannel channel, long fileSize) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(16);
+        long pos = 0;
+        for (int boxes = 0; boxes < MAX_TOP_LEVEL_BOXES && fileSize - pos >= 8; boxes++) {
+            header.clear().limit(8);
+            readFully(channel, header, pos);
+            long size = Integer.toUnsignedLong(header.getInt(0));
+            String type = fourcc(header, 4);
+            if (!isPrintable(type)) {
+                return null; // not ISO BMFF
+            }
+
+            int headerSize = 8;
+            if (size == 1) {
+                header.limit(16);
+                readFully(channel, header, pos); // continues at offset 8
+                size = header.getLong(8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = fileSize - pos; // box runs to the end of the file
+            }
+            if (size < headerSize || size > fileSize - pos) {
+                throw new IOException("Corrupt MP4 box '" + type + "' at offset " + pos);
+            }
+
+            if (type.equals("moov")) {
+                long bodySize = size - headerSize;
+                if (bodySize > MAX_MOOV_SIZE) {
+                    throw new IOException("MP4 moov box too large: " + bodySize + " bytes");
+                }
+                ByteBuffer body = ByteBuffer.allocate((int) bodySize);
+                readFully(channel, body, pos + headerSize);
+                return body.flip();
+            }
+            pos += size;
+        }
+        return null;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("MP4 file ends inside a box header");
+            }
+        }
+    }
+
+    /**
+     * Parses the boxes in [start, end) of moov. Truncated or inconsistent children
+     * end the walk of their parent; whatever was read so far is kept.
+     */
+    private static void parseBoxes(ByteBuffer buf, int start, int end, Movie movie, Track track) {
+        int pos = start;
+        while (end - pos >= 8) {
+            long size = Integer.toUnsignedLong(buf.getInt(pos));
+            String type = fourcc(buf, pos + 4);
+            int headerSize = 8;
+            if (size == 1) {
+                if (end - pos < 16) {
+                    return;
+                }
+                size = buf.getLong(pos + 8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = end - pos;
+            }
+            if (size < headerSize || size > end - pos) {
+                return;
+            }
+            int body = pos + headerSize;
+            int bodyEnd = (int) (pos + size);
+
+            switch (type) {
+                case "trak" -> {
+                    Track child = new Track();
+                    parseBoxes(buf, body, bodyEnd, movie, child);
+                    movie.add(child);
+                }
+                case "mdia", "minf", "stbl", "mvex" -> parseBoxes(buf, body, bodyEnd, movie, track);
+                case "mvhd" -> parseMvhd(buf, body, bodyEnd, movie);
+                case "mehd" -> parseMehd(buf, body, bodyEnd, movie);
+                case "tkhd" -> parseTkhd(buf, body, bodyEnd, track);
+                case "hdlr" -> {
+                    // version/flags, pre_defined, handler_type
+                    if (track != null && bodyEnd - body >= 12) {
+                        track.handler = fourcc(buf, body + 8);
+                    }
+                }
+                case "stsd" -> parseStsd(buf, body, bodyEnd, track);
+                default -> {
+                    // not needed
+                }
+            }
+            pos = bodyEnd;
+        }
+    }
+
+    private static void parseMvhd(ByteBuffer buf, int body, int end, Movie movie) {
+        if (end - body < 4) {
+            return;
+        }
+        int version = buf.get(body);
+        if (version == 1 && end - body >= 32) {
+            movie.timescale = Integer.toUnsignedLong(buf.getInt(body + 20));
+            movie.duration = buf.getLong(body + 24);
+        } else if (version == 0 && end - body >= 20) {
+            movie.timescale = Integer.toUnsignedLong(buf.getInt(body + 12));
+            long duration = Integer.toUnsignedLong(buf.getInt(body + 16));
+            movie.duration = duration == 0xFFFFFFFFL ? 0 : duration; // all ones means unknown
+        }
+    }
+
+    // Fragmented files keep the real length here and 0 in mvhd
+    private static void parseMehd(ByteBuffer buf, int body, int end, Movie movie) {
+        if (end - body < 4) {
+            return;
+        }
+        int version = buf.get(body);
+        if (version == 1 && end - body >= 12) {
+            movie.fragmentDuration = buf.getLong(body + 4);
+        } else if (version == 0 && end - body >= 8) {
+            movie.fragmentDuration = Integer.toUnsignedLong(buf.getInt(body + 4));
+        }
+    }
+
+    // Display size, 16.16 fixed point, after the matrix
+    private static void parseTkhd(ByteBuffer buf, int body, int end, Track track) {
+        if (track == null || end - body < 4) {
+            return;
+        }
+        int offset = buf.get(body) == 1 ? 88 : 76;
+        if (end - body >= offset + 8) {
+            track.width = buf.getInt(body + offset) >>> 16;
+            track.height = buf.getInt(body + offset + 4) >>> 16;
+        }
+    }
+
+    // First sample entry: its type is the codec; visual entries also carry the coded size
+    private static void parseStsd(ByteBuffer buf, int body, int end, Track track) {
+        if (track == null || end - body < 16) {
+            return;
+        }
+        int entry = body + 8; // version/flags, entry_count
+        track.codec = fourcc(buf, entry + 4);
+        if (end - entry >= 36) {
+            track.codedWidth = Short.toUnsignedInt(buf.getShort(entry + 32));
+            track.codedHeight = Short.toUnsignedInt(buf.getShort(entry + 34));
+        }
+    }
+
+    private static String fourcc(ByteBuffer buf, int at) {
+        byte[] bytes = new byte[4];
+        buf.get(at, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean isPrintable(String type) {
+        for (int i = 0; i < type.length(); i++) {
+            char c = type.charAt(i);
+            if (c < 0x20 || c > 0x7e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Movie {
+        long timescale;
+        long duration;
+        long fragmentDuration;
+        Integer width;
+        Integer height;
+        String videoCodec;
+        String audioCodec;
+
+        // First video and first audio track win
+        void add(Track track) {
+            if ("vide".equals(track.handler) && videoCodec == null) {
+                videoCodec = track.codec;
+                boolean display = track.width > 0 && track.height > 0;
+                // Boxed on both sides: a mixed int/Integer ternary would unbox a null
+                width = display ? Integer.valueOf(track.width) : positive(track.codedWidth);
+                height = display ? Integer.valueOf(track.height) : positive(track.codedHeight);
+            } else if ("soun".equals(track.handler) && audioCodec == null) {
+                audioCodec = track.codec;
+            }
+        }
+
+        Double seconds() {
+            if (timescale <= 0) {
+                return null;
+            }
+            long units = duration > 0 ? duration : fragmentDuration;
+            return units > 0 ? (double) units / timescale : null;
+        }
+
+        private static Integer positive(int value) {
+            return value > 0 ? value : null;
+        }
+    }
+
+    private static final class Track {
+        String handler;
+        String codec;
+        int width;
+        int height;
+        int codedWidth;
+        int codedHeight;
+    }
+}
@@ -0,0 +1,324 @@
+package com.educare.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Incremental multipart/form-data parser (RFC 7578). Parts are handed out one at a
+ * time as streams over the request body, so a file part can be piped to its
+ * destination while it arrives. Memory use is one fixed buffer regardless of
+ * body size; nothing is spooled to disk. Every byte pulled from the body counts
+ * towards the request limit, including parts that are skipped unread.
+ *
+ * Usage: call {@link #next()} until it returns null; an unread or partly read
+ * part is skipped automatically when moving to the next one.
+ */
+public class MultipartStreamReader implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 8 * 1024;
+
+    private static final Pattern NAME = Pattern.compile("(?i)(?:^|;)\\s*name=\"([^\"]*)\"");
+    private static final Pattern FILENAME = Pattern.compile("(?i)(?:^|;)\\s*filename=\"([^\"]*)\"");
+
+    private final InputStream in;
+    private final byte[] delimiter; // CRLF "--" boundary
+    private final long maxPartSize;
+    private final long maxRequestSize;
+    private long consumed;
+
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private int delimiterAt = -1; // index of the next delimiter in buf, -1 if not buffered yet
+    private boolean eof;
+    private boolean finished;
+
+    private PartInputStream current;
+
+    /**
+     * @param in          Raw request body
+     * @param boundary    Boundary parameter of the multipart Content-Type
+     * @param maxPartSize    Largest body a single part may have, in bytes
+     * @param maxRequestSize Largest the whole body may be, in bytes
+     */
+    public MultipartStreamReader(InputStream in, String boundary, long maxPartSize, long maxRequestSize) {
+        if (boundary == null || boundary.isEmpty() || boundary.length() > 70) {
+            throw new IllegalArgumentException("Invalid multipart boundary");
+        }
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        this.maxPartSize = maxPartSize;
+        this.maxRequestSize = maxRequestSize;
+
+        // The first boundary has no leading CRLF; pretend it does so every delimiter looks alike
+        buf[0] = '\r';
+        buf[1] = '\n';
+        limit = 2;
+        current = new PartInputStream(Long.MAX_VALUE); // the preamble
+    }
+
+    /**
+     * Advances to the next part, skipping whatever is left of the current one.
+     *
+     * @return the next part, or null after the closing boundary
+     */
+    public Part next() throws IOException {
+        if (finished) {
+            return null;
+        }
+
+        current.skipRest();
+
+        // positioned on a delimiter
+        pos += delimiter.length;
+        delimiterAt = -1;
+        ensure(2);
+        if (buf[pos] == '-' && buf[pos + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        skipLine();
+
+        String headers = readHeaders();
+        String name = null;
+        String filename = null;
+        String contentType = null;
+        for (String line : headers.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String header = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if (header.equalsIgnoreCase("Content-Disposition")) {
+                name = param(NAME, value);
+                filename = param(FILENAME, value);
+            } else if (header.equalsIgnoreCase("Content-Type")) {
+                contentType = value;
+            }
+        }
+
+        delimiterAt = indexOfDelimiter();
+        current = new PartInputStream(maxPartSize);
+        return new Part(name, filename, contentType, current);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static String param(Pattern pattern, String value) {
+        Matcher m = pattern.matcher(value);
+        return m.find() ? m.group(1) : null;
+    }
+
+    private String readHeaders() throws IOException {
+        ByteArrayOutputStream headers = new ByteArrayOutputStream();
+        int matched = 0; // progress through CRLF CRLF, counting the line break we just skipped
+        while (true) {
+            ensure(1);
+            byte b = buf[pos++];
+            headers.write(b);
+            if (headers.size() > MAX_HEADER_BYTES) {
+                throw new IOException("Multipart part headers too large");
+            }
+            if ((matched % 2 == 0 && b == '\r') || (matched % 2 == 1 && b == '\n')) {
+                matched++;
+            } else {
+                matched = b == '\r' ? 1 : 0;
+            }
+            if (matched == 4 || (headers.size() == 2 && matched == 2)) {
+                return headers.toString(StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    // Skips transport padding and the CRLF that follows a boundary
+    private void skipLine() throws IOException {
+        while (true) {
+            ensure(1);
+            if (buf[pos++] == '\n') {
+                return;
+            }
+        }
+    }
+
+    // Makes at least n unread bytes available in buf
+    private void ensure(int n) throws IOException {
+        while (limit - pos < n) {
+            if (eof) {
+                throw new EOFException("Unexpected end of multipart body");
+            }
+            fill();
+        }
+    }
+
+    private void fill() throws IOException {
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            if (delimiterAt >= 0) {
+                delimiterAt -= pos;
+            }
+            limit -= pos;
+            pos = 0;
+        }
+        int read = in.read(buf, limit, buf.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+            consumed += read;
+            if (consumed > maxRequestSize) {
+                throw new SizeLimitExceededException("Request", maxRequestSize);
+            }
+        }
+        if (delimiterAt < 0) {
+            delimiterAt = indexOfDelimiter();
+        }
+    }
+
+    private int indexOfDelimiter() {
+        outer:
+        for (int i = pos; i <= limit - delimiter.length; i++) {
+            for (int j = 0; j < delimiter.length; j++) {
+                if (buf[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Bytes of the current part that can be handed out without crossing the
+     * delimiter; 0 means the part is over.
+     */
+    private int available() throws IOException {
+        while (true) {
+            if (delimiterAt >= 0) {
+                return delimiterAt - pos;
+            }
+            // Hold back a tail that could be the start of a delimiter split across reads
+            int safe = limit - (delimiter.length - 1);
+            if (safe > pos) {
+                return safe - pos;
+            }
+            if (eof) {
+                throw new EOFException("Unexpected end of multipart body");
+            }
+            fill();
+        }
+    }
+
+    /**
+     * One part of the body. {@link #getBody()} is only readable until
+     * {@link MultipartStreamReader#next()} is called again.
+     */
+    public static final class Part {
+        private final String name;
+        private final String filename;
+        private final String contentType;
+        private final InputStream body;
+
+        Part(String name, String filename, String contentType, InputStream body) {
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public InputStream getBody() {
+            return body;
+        }
+    }
+
+    /**
+     * Thrown when a part or the whole body is larger than the configured maximum.
+     */
+    public static class SizeLimitExceededException extends IOException {
+        public SizeLimitExceededException(String what, long max) {
+            super(what + " exceeds the maximum size of " + max + " bytes");
+        }
+    }
+
+    private final class PartInputStream extends InputStream {
+        private final long max;
+        private long read;
+        private boolean done;
+
+        PartInputStream(long max) {
+            this.max = max;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done || this != current) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            int available = MultipartStreamReader.this.available();
+            if (available == 0) {
+                done = true;
+                return -1;
+            }
+            int n = Math.min(available, len);
+            if (read + n > max) {
+                throw new SizeLimitExceededException("Part", max);
+            }
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            read += n;
+            return n;
+        }
+
+        // Consumes the rest of the part without copying it out; still bound by the part limit
+        void skipRest() throws IOException {
+            while (!done) {
+                int available = MultipartStreamReader.this.available();
+                if (available == 0) {
+                    done = true;
+                } else {
+                    if (read + available > max) {
+                        throw new SizeLimitExceededException("Part", max);
+                    }
+                    pos += available;
+                    read += available;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            // the reader owns the underlying stream
+        }
+    }
+}
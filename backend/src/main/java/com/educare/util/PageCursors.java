@@ -0,0 +1,42 @@
+package com.educare.util;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque cursors for keyset pagination. A cursor is the sort key of the last row
+ * of the previous page, versioned and base64url-encoded so clients treat it as a
+ * token rather than an id they can do arithmetic on.
+ */
+public final class PageCursors {
+
+    private static final byte VERSION = 1;
+
+    private PageCursors() {
+    }
+
+    public static String encode(long lastKey) {
+        byte[] raw = ByteBuffer.allocate(9).put(VERSION).putLong(lastKey).array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Returns the key to continue after; 0 (before every id) for the first page.
+     *
+     * @throws RuntimeException if the cursor was not issued by {@link #encode}
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            ByteBuffer raw = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+            if (raw.remaining() != 9 || raw.get() != VERSION) {
+                throw new IllegalArgumentException();
+            }
+            return raw.getLong();
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid page cursor");
+        }
+    }
+}
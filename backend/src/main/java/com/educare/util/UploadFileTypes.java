@@ -0,0 +1,52 @@
+package com.educare.util;
+
+import java.util.Set;
+
+/**
+ * Maps upload MIME types to the course content file types (VIDEO, PDF, PPT, DOC),
+ * plus IMAGE for course covers.
+ */
+public final class UploadFileTypes {
+
+    public static final Set<String> SUPPORTED_VIDEO_EXTENSIONS = Set.of(
+            "mov", "mpeg4", "mp4", "avi", "wmv",
+            "mpegps", "flv", "3gpp", "webm",
+            "dnxhr", "prores", "cineform", "hevc"
+    );
+
+    public static final Set<String> SUPPORTED_IMAGE_TYPES = Set.of(
+            "image/jpeg", "image/png", "image/gif", "image/webp"
+    );
+
+    private UploadFileTypes() {
+    }
+
+    /**
+     * @return VIDEO, PDF, PPT, DOC or IMAGE, or null if the type is not accepted
+     */
+    public static String fileType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        if (contentType.startsWith("video/")) {
+            return "VIDEO";
+        } else if (contentType.equals("application/pdf")) {
+            return "PDF";
+        } else if (contentType.equals("application/vnd.ms-powerpoint") ||
+                contentType.equals("application/vnd.openxmlformats-officedocument.presentationml.presentation")) {
+            return "PPT";
+        } else if (contentType.equals("application/msword") ||
+                contentType.equals("application/vnd.openxmlformats-officedocument.wordprocessingml.document")) {
+            return "DOC";
+        } else if (SUPPORTED_IMAGE_TYPES.contains(contentType)) {
+            return "IMAGE";
+        }
+        return null;
+    }
+
+    public static String extension(String filename) {
+        return (filename != null && filename.contains("."))
+                ? filename.substring(filename.lastIndexOf('.') + 1).toLowerCase()
+                : "";
+    }
+}
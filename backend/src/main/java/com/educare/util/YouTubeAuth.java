@@ -1,31 +1,85 @@
 package com.educare.util;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
+import com.google.api.client.http.HttpBackOffIOExceptionHandler;
+import com.google.api.client.http.HttpBackOffUnsuccessfulResponseHandler;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.HttpUnsuccessfulResponseHandler;
+import com.google.api.client.util.ExponentialBackOff;
 import com.google.api.services.youtube.YouTube;
-import com.google.api.services.youtube.YouTubeScopes;
-import org.springframework.core.io.ClassPathResource;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Collections;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 
 public class YouTubeAuth {
 
     private static final String APPLICATION_NAME = "Educare-App";
+    private static final int DEFAULT_RETRY_WINDOW_MS = 2 * 60 * 1000;
 
     public static YouTube getYouTubeService(String refreshToken, String clientId, String clientSecret) throws IOException {
-        GoogleCredential credential = new GoogleCredential.Builder()
+        NetHttpTransport transport = new NetHttpTransport();
+        GoogleCredential credential = getCredential(transport, refreshToken, clientId, clientSecret);
+        credential.refreshToken(); // ensure access token is valid
+        return getYouTubeService(transport, credential, null, DEFAULT_RETRY_WINDOW_MS);
+    }
+
+    /**
+     * Builds an OAuth credential for the stored refresh token without contacting Google;
+     * the access token is fetched on the first refresh. Safe to share between threads.
+     */
+    public static GoogleCredential getCredential(HttpTransport transport, String refreshToken,
+                                                 String clientId, String clientSecret) {
+        return new GoogleCredential.Builder()
                 .setClientSecrets(clientId, clientSecret)
-                .setTransport(new NetHttpTransport())
+                .setTransport(transport)
                 .setJsonFactory(GsonFactory.getDefaultInstance())
                 .build()
                 .setRefreshToken(refreshToken);
+    }
 
-        credential.refreshToken(); // ensure access token is valid
+    /**
+     * Builds a client whose requests retry I/O errors and 5xx responses with exponential
+     * backoff. For resumable media uploads each retry first asks the server how many
+     * bytes it has stored and continues from there, so a dropped connection only costs
+     * the unacknowledged part of the current chunk.
+     *
+     * @param transport     Transport to share with the credential, so both reuse the same connections
+     * @param credential    OAuth credential, or null when talking to a custom root
+     * @param rootUrl       API root to use instead of Google's, e.g. the local fake endpoint; null for YouTube
+     * @param retryWindowMs How long a single request keeps retrying before giving up
+     */
+    public static YouTube getYouTubeService(HttpTransport transport, GoogleCredential credential,
+                                            String rootUrl, int retryWindowMs) {
+        YouTube.Builder builder = new YouTube.Builder(transport, GsonFactory.getDefaultInstance(),
+                retryingInitializer(credential, retryWindowMs))
+                .setApplicationName(APPLICATION_NAME);
+        if (rootUrl != null) {
+            builder.setRootUrl(rootUrl.endsWith("/") ? rootUrl : rootUrl + "/");
+        }
+        return builder.build();
+    }
+
+    private static HttpRequestInitializer retryingInitializer(GoogleCredential credential, int retryWindowMs) {
+        return request -> {
+            if (credential != null) {
+                credential.initialize(request);
+            }
+            // Fresh backoff per request, so every chunk gets the full retry window
+            HttpUnsuccessfulResponseHandler backoff = new HttpBackOffUnsuccessfulResponseHandler(backOff(retryWindowMs));
+            HttpUnsuccessfulResponseHandler auth = request.getUnsuccessfulResponseHandler();
+            request.setUnsuccessfulResponseHandler((req, response, supportsRetry) ->
+                    (auth != null && auth.handleResponse(req, response, supportsRetry))
+                            || backoff.handleResponse(req, response, supportsRetry));
+            request.setIOExceptionHandler(new HttpBackOffIOExceptionHandler(backOff(retryWindowMs)));
+        };
+    }
 
-        return new YouTube.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance(), credential)
-                .setApplicationName(APPLICATION_NAME)
+    private static ExponentialBackOff backOff(int retryWindowMs) {
+        return new ExponentialBackOff.Builder()
+                .setInitialIntervalMillis(500)
+                .setMaxIntervalMillis(30_000)
+                .setMaxElapsedTimeMillis(retryWindowMs)
                 .build();
     }
 }
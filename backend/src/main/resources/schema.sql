@@ -85,3 +85,84 @@ CREATE TABLE notes (
 );
 ALTER TABLE courses
 ADD COLUMN image_url VARCHAR(500);
+
+-- Content-addressed upload store: one blob per SHA-256, public names are aliases
+CREATE TABLE upload_blobs (
+    sha256 CHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    ref_count INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE upload_aliases (
+    name VARCHAR(500) PRIMARY KEY,
+    sha256 CHAR(64) NOT NULL REFERENCES upload_blobs(sha256),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_upload_aliases_sha256 ON upload_aliases(sha256);
+
+-- Background video publishing (YouTube) jobs
+CREATE TABLE video_publish_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    title VARCHAR(200) NOT NULL,
+    staged_path TEXT,
+    thumbnail_path TEXT,
+    thumbnail_content_type VARCHAR(50),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('QUEUED', 'UPLOADING', 'SUCCEEDED', 'FAILED')),
+    attempts INT NOT NULL DEFAULT 0,
+    progress_percent INT NOT NULL DEFAULT 0,
+    video_id VARCHAR(50),
+    url TEXT,
+    error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_video_publish_jobs_status ON video_publish_jobs(status);
+
+-- Logged-out JWTs, kept until the token would have expired anyway
+CREATE TABLE revoked_tokens (
+    token_digest CHAR(64) PRIMARY KEY, -- SHA-256 of the compact token
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+
+-- Keyset pagination: every list walks (parent, id) in id order
+CREATE INDEX idx_courses_published_id ON courses(id) WHERE is_published;
+CREATE INDEX idx_course_contents_course_id ON course_contents(course_id, id);
+CREATE INDEX idx_enrollments_course_id ON enrollments(course_id, id);
+CREATE INDEX idx_notes_course_main ON notes(course_id, id) WHERE parent_note_id IS NULL;
+CREATE INDEX idx_notes_parent ON notes(parent_note_id, id);
+
+-- Teacher dashboard: courses by owner, latest note per course
+CREATE INDEX idx_courses_teacher_id ON courses(teacher_id);
+CREATE INDEX idx_notes_course_created_at ON notes(course_id, created_at);
+
+-- Entitlement reload and payment re-checks
+CREATE INDEX idx_payments_course_student_status ON payments(course_id, student_id, status);
+
+-- Pooled ids: Hibernate reserves 50 ids per sequence call (allocationSize = 50),
+-- which lets it batch inserts. Plain SQL inserts still work, just with gaps.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE courses_id_seq INCREMENT BY 50;
+ALTER SEQUENCE course_contents_id_seq INCREMENT BY 50;
+ALTER SEQUENCE enrollments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE notes_id_seq INCREMENT BY 50;
+ALTER SEQUENCE video_publish_jobs_id_seq INCREMENT BY 50;
+
+-- Video metadata read from the MP4/MOV header at upload
+ALTER TABLE video_publish_jobs
+    ADD COLUMN duration_seconds INT,
+    ADD COLUMN video_width INT,
+    ADD COLUMN video_height INT,
+    ADD COLUMN video_codec VARCHAR(20),
+    ADD COLUMN bitrate BIGINT;
+ALTER TABLE course_contents
+    ADD COLUMN video_width INT,
+    ADD COLUMN video_height INT,
+    ADD COLUMN video_codec VARCHAR(20),
+    ADD COLUMN bitrate BIGINT;
+CREATE INDEX idx_video_publish_jobs_url ON video_publish_jobs(url);
@@ -0,0 +1,151 @@
+package com.educare.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import static com.educare.util.Mp4TestFiles.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mp4FaststartTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void movesMoovInFrontAndShiftsStcoOffsets() throws Exception {
+        byte[] ftyp = ftyp();
+        byte[] mdat = mdat(200_000);
+        long data = ftyp.length + 8;
+        long[] offsets = {data, data + 1000, data + 150_000};
+        byte[] moov = box("moov", mvhd(1000, 5000),
+                track(tkhd(640, 360), "vide", stsd("avc1", 640, 360), stco(offsets)));
+        byte[] original = concat(ftyp, mdat, moov);
+
+        byte[] rewritten = rewrite(original);
+
+        assertEquals(original.length, rewritten.length);
+        assertEquals("moov", type(rewritten, ftyp.length));
+        assertEquals("mdat", type(rewritten, ftyp.length + moov.length));
+
+        ByteBuffer out = ByteBuffer.wrap(rewritten);
+        int entries = indexOf(rewritten, "stco") + 12;
+        for (int i = 0; i < offsets.length; i++) {
+            long shifted = Integer.toUnsignedLong(out.getInt(entries + i * 4));
+            assertEquals(offsets[i] + moov.length, shifted);
+            assertSameBytes(original, offsets[i], rewritten, shifted);
+        }
+    }
+
+    @Test
+    void shiftsCo64Offsets() throws Exception {
+        byte[] ftyp = ftyp();
+        byte[] mdat = mdat(100_000);
+        long data = ftyp.length + 8;
+        long[] offsets = {data + 10, data + 90_000};
+        byte[] moov = box("moov", mvhd(1000, 5000),
+                track(tkhd(0, 0), "soun", stsd("mp4a", 0, 0), co64(offsets)));
+        byte[] original = concat(ftyp, mdat, moov);
+
+        byte[] rewritten = rewrite(original);
+
+        ByteBuffer out = ByteBuffer.wrap(rewritten);
+        int entries = indexOf(rewritten, "co64") + 12;
+        for (int i = 0; i < offsets.length; i++) {
+            long shifted = out.getLong(entries + i * 8);
+            assertEquals(offsets[i] + moov.length, shifted);
+            assertSameBytes(original, offsets[i], rewritten, shifted);
+        }
+    }
+
+    @Test
+    void digestCoversExactlyTheWrittenFile() throws Exception {
+        byte[] ftyp = ftyp();
+        byte[] original = concat(ftyp, mdat(50_000),
+                box("moov", track(tkhd(0, 0), "vide", stco(ftyp.length + 8))));
+        Path source = write(original);
+        Path target = dir.resolve("out.mp4");
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+        assertTrue(Mp4Faststart.rewrite(source, target, digest));
+
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(target));
+        assertArrayEquals(expected, digest.digest());
+    }
+
+    @Test
+    void leavesFaststartFilesAlone() throws Exception {
+        byte[] ftyp = ftyp();
+        byte[] moov = box("moov", track(tkhd(0, 0), "vide", stco(0)));
+        assertNotRewritten(concat(ftyp, moov, mdat(1000)));
+    }
+
+    @Test
+    void leavesFragmentedFilesAlone() throws Exception {
+        byte[] moov = box("moov", track(tkhd(0, 0), "vide", stco(0)));
+        assertNotRewritten(concat(ftyp(), mdat(1000), box("moof", new byte[16]), moov));
+    }
+
+    @Test
+    void rejectsTruncatedStcoWithoutThrowing() throws Exception {
+        // stco body shorter than version/flags + entry_count
+        byte[] moov = box("moov", track(tkhd(0, 0), "vide", box("stco", new byte[4])));
+        assertNotRewritten(concat(ftyp(), mdat(1000), moov));
+    }
+
+    @Test
+    void rejectsTruncatedCo64WithoutThrowing() throws Exception {
+        byte[] moov = box("moov", track(tkhd(0, 0), "vide", box("co64", new byte[0])));
+        assertNotRewritten(concat(ftyp(), mdat(1000), moov));
+    }
+
+    @Test
+    void rejectsEntryCountBeyondTheBox() throws Exception {
+        byte[] stco = box("stco", ByteBuffer.allocate(12).putInt(4, 1000).array());
+        byte[] moov = box("moov", track(tkhd(0, 0), "vide", stco));
+        assertNotRewritten(concat(ftyp(), mdat(1000), moov));
+    }
+
+    @Test
+    void rejectsChildBoxLargerThanItsParent() throws Exception {
+        byte[] trak = box("trak", new byte[8]);
+        ByteBuffer.wrap(trak).putInt(8, 10_000); // child claims more than trak holds
+        assertNotRewritten(concat(ftyp(), mdat(1000), box("moov", trak)));
+    }
+
+    @Test
+    void leavesNonMp4FilesAlone() throws Exception {
+        assertNotRewritten("just some text, not a movie".getBytes());
+    }
+
+    private byte[] rewrite(byte[] original) throws Exception {
+        Path target = dir.resolve("out.mp4");
+        assertTrue(Mp4Faststart.rewrite(write(original), target, MessageDigest.getInstance("SHA-256")));
+        return Files.readAllBytes(target);
+    }
+
+    private void assertNotRewritten(byte[] original) throws Exception {
+        Path target = dir.resolve("out.mp4");
+        assertFalse(Mp4Faststart.rewrite(write(original), target, MessageDigest.getInstance("SHA-256")));
+        assertFalse(Files.exists(target));
+    }
+
+    private Path write(byte[] bytes) throws Exception {
+        return Files.write(dir.resolve("in.mp4"), bytes);
+    }
+
+    private static String type(byte[] file, int boxOffset) {
+        return new String(file, boxOffset + 4, 4);
+    }
+
+    private static void assertSameBytes(byte[] original, long from, byte[] rewritten, long to) {
+        assertArrayEquals(
+                Arrays.copyOfRange(original, (int) from, (int) from + 64),
+                Arrays.copyOfRange(rewritten, (int) to, (int) to + 64));
+    }
+}
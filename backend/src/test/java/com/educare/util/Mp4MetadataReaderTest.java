@@ -0,0 +1,98 @@
+package com.educare.util;
+
+import com.educare.model.VideoMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.educare.util.Mp4TestFiles.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mp4MetadataReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] moov() {
+        return box("moov", mvhd(1000, 90_500),
+                track(tkhd(1280, 720), "vide", stsd("avc1", 1280, 720), stco(0)),
+                track(tkhd(0, 0), "soun", stsd("mp4a", 0, 0), co64(0)));
+    }
+
+    @Test
+    void readsMoovBehindTheMediaData() throws Exception {
+        byte[] file = concat(ftyp(), mdat(300_000), moov());
+
+        VideoMetadata metadata = Mp4MetadataReader.read(write(file));
+
+        assertNotNull(metadata);
+        assertEquals(91, metadata.getDurationSeconds());
+        assertEquals(1280, metadata.getWidth());
+        assertEquals(720, metadata.getHeight());
+        assertEquals("avc1", metadata.getVideoCodec());
+        assertEquals("mp4a", metadata.getAudioCodec());
+        assertEquals(Math.round(file.length * 8 / 90.5), metadata.getBitrate());
+    }
+
+    @Test
+    void readsMoovInFront() throws Exception {
+        VideoMetadata metadata = Mp4MetadataReader.read(write(concat(ftyp(), moov(), mdat(1000))));
+
+        assertNotNull(metadata);
+        assertEquals(91, metadata.getDurationSeconds());
+        assertEquals("avc1", metadata.getVideoCodec());
+    }
+
+    @Test
+    void fallsBackToCodedSizeWithoutDisplaySize() throws Exception {
+        byte[] moov = box("moov", mvhd(600, 600),
+                track(tkhd(0, 0), "vide", stsd("hvc1", 1920, 1080)));
+
+        VideoMetadata metadata = Mp4MetadataReader.read(write(concat(ftyp(), moov)));
+
+        assertEquals(1920, metadata.getWidth());
+        assertEquals(1080, metadata.getHeight());
+        assertEquals("hvc1", metadata.getVideoCodec());
+        assertNull(metadata.getAudioCodec());
+    }
+
+    @Test
+    void keepsWhatWasReadBeforeATruncatedChild() throws Exception {
+        // stsd too short for a sample entry, tkhd cut before the size fields
+        byte[] moov = box("moov", mvhd(1000, 2000),
+                box("trak", box("tkhd", new byte[40]),
+                        box("mdia", hdlr("vide"), box("minf", box("stbl", box("stsd", new byte[6]))))));
+
+        VideoMetadata metadata = Mp4MetadataReader.read(write(concat(ftyp(), moov)));
+
+        assertNotNull(metadata);
+        assertEquals(2, metadata.getDurationSeconds());
+        assertNull(metadata.getWidth());
+        assertNull(metadata.getVideoCodec());
+    }
+
+    @Test
+    void rejectsTopLevelBoxRunningPastTheEnd() throws Exception {
+        byte[] moov = moov();
+        byte[] truncated = concat(ftyp(), java.util.Arrays.copyOf(moov, moov.length / 2));
+
+        assertThrows(IOException.class, () -> Mp4MetadataReader.read(write(truncated)));
+    }
+
+    @Test
+    void returnsNullWithoutMoov() throws Exception {
+        assertNull(Mp4MetadataReader.read(write(concat(ftyp(), mdat(1000)))));
+    }
+
+    @Test
+    void returnsNullForNonMp4Files() throws Exception {
+        assertNull(Mp4MetadataReader.read(write(new byte[]{0, 0, 0, 12, 1, 2, 3, 4, 0, 0, 0, 0})));
+    }
+
+    private Path write(byte[] bytes) throws IOException {
+        return Files.write(dir.resolve("video.mp4"), bytes);
+    }
+}
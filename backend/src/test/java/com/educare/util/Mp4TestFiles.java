@@ -0,0 +1,105 @@
+package com.educare.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds minimal ISO BMFF boxes for the MP4 parser tests: just enough structure
+ * for the fields the readers look at, zeros everywhere else.
+ */
+final class Mp4TestFiles {
+
+    private Mp4TestFiles() {
+    }
+
+    static byte[] box(String type, byte[]... parts) {
+        byte[] body = concat(parts);
+        return ByteBuffer.allocate(8 + body.length)
+                .putInt(8 + body.length)
+                .put(type.getBytes(StandardCharsets.ISO_8859_1))
+                .put(body)
+                .array();
+    }
+
+    static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] ftyp() {
+        return box("ftyp", "isom\0\0\2\0isomiso2avc1mp41".getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    static byte[] mdat(int payloadSize) {
+        byte[] payload = new byte[payloadSize];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i * 31 + (i >>> 8)); // distinguishable at every offset
+        }
+        return box("mdat", payload);
+    }
+
+    // Version 0: timescale at 12, duration at 16
+    static byte[] mvhd(int timescale, int duration) {
+        return box("mvhd", ByteBuffer.allocate(100).putInt(12, timescale).putInt(16, duration).array());
+    }
+
+    // Version 0: 16.16 display size after the matrix, at 76
+    static byte[] tkhd(int width, int height) {
+        return box("tkhd", ByteBuffer.allocate(84).putInt(76, width << 16).putInt(80, height << 16).array());
+    }
+
+    static byte[] hdlr(String handler) {
+        ByteBuffer body = ByteBuffer.allocate(25);
+        body.position(8);
+        body.put(handler.getBytes(StandardCharsets.ISO_8859_1));
+        return box("hdlr", body.array());
+    }
+
+    // One sample entry; visual entries carry the coded size at 32
+    static byte[] stsd(String codec, int width, int height) {
+        ByteBuffer entry = ByteBuffer.allocate(86)
+                .putInt(0, 86)
+                .put(4, codec.getBytes(StandardCharsets.ISO_8859_1))
+                .putShort(32, (short) width)
+                .putShort(34, (short) height);
+        return box("stsd", ByteBuffer.allocate(8).putInt(4, 1).array(), entry.array());
+    }
+
+    static byte[] stco(long... offsets) {
+        ByteBuffer body = ByteBuffer.allocate(8 + offsets.length * 4).putInt(4, offsets.length);
+        for (int i = 0; i < offsets.length; i++) {
+            body.putInt(8 + i * 4, (int) offsets[i]);
+        }
+        return box("stco", body.array());
+    }
+
+    static byte[] co64(long... offsets) {
+        ByteBuffer body = ByteBuffer.allocate(8 + offsets.length * 8).putInt(4, offsets.length);
+        for (int i = 0; i < offsets.length; i++) {
+            body.putLong(8 + i * 8, offsets[i]);
+        }
+        return box("co64", body.array());
+    }
+
+    static byte[] track(byte[] tkhd, String handler, byte[]... stbl) {
+        return box("trak", tkhd, box("mdia", hdlr(handler), box("minf", box("stbl", stbl))));
+    }
+
+    static int indexOf(byte[] data, String type) {
+        byte[] pattern = type.getBytes(StandardCharsets.ISO_8859_1);
+        outer:
+        for (int i = 0; i + pattern.length <= data.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
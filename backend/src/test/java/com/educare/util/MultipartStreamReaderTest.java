@@ -0,0 +1,303 @@
+package com.educare.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----educare7MA4YWxkTrZu0gW";
+    private static final int BUFFER_SIZE = 64 * 1024; // the reader's
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
+    @Test
+    void findsDelimiterSplitAtEveryBufferOffset() throws Exception {
+        // Moves the delimiter after the first part across the end of the first buffer fill,
+        // one byte at a time, so every split of it between two reads is exercised
+        int headerLength = ("\r\n--" + BOUNDARY + "\r\n" + fileHeaders("a.bin")).length();
+        int delimiterLength = ("\r\n--" + BOUNDARY).length();
+        for (int size = BUFFER_SIZE - headerLength - delimiterLength - 2;
+             size <= BUFFER_SIZE - headerLength + 2; size++) {
+            byte[] payload = payload(size);
+            byte[] body = body(part(fileHeaders("a.bin"), payload), part(fieldHeaders("title"), bytes("Lecture 1")));
+
+            List<byte[]> parts = readAll(new ByteArrayInputStream(body), NO_LIMIT, NO_LIMIT);
+
+            assertEquals(2, parts.size(), "payload of " + size);
+            assertArrayEquals(payload, parts.get(0), "payload of " + size);
+            assertArrayEquals(bytes("Lecture 1"), parts.get(1), "payload of " + size);
+        }
+    }
+
+    @Test
+    void findsDelimiterWhenTheBodyTricklesIn() throws Exception {
+        byte[] payload = payload(5000);
+        byte[] body = body(part(fileHeaders("a.bin"), payload), part(fieldHeaders("title"), bytes("x")));
+
+        for (int readSize = 1; readSize <= 50; readSize++) {
+            List<byte[]> parts = readAll(new ShortReads(body, readSize), NO_LIMIT, NO_LIMIT);
+
+            assertEquals(2, parts.size(), "reads of " + readSize);
+            assertArrayEquals(payload, parts.get(0), "reads of " + readSize);
+            assertArrayEquals(bytes("x"), parts.get(1), "reads of " + readSize);
+        }
+    }
+
+    @Test
+    void keepsPayloadBytesThatLookLikeTheStartOfADelimiter() throws Exception {
+        byte[] payload = bytes("a\r\n--" + BOUNDARY.substring(0, 10) + "b\r\n-\r\n--");
+        List<byte[]> parts = readAll(new ByteArrayInputStream(body(part(fileHeaders("a.bin"), payload))),
+                NO_LIMIT, NO_LIMIT);
+
+        assertEquals(1, parts.size());
+        assertArrayEquals(payload, parts.get(0));
+    }
+
+    @Test
+    void readsEmptyPartsAndEmptyHeaderBlocks() throws Exception {
+        byte[] body = body(part(fieldHeaders("empty"), new byte[0]), part("", bytes("no headers")));
+
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), NO_LIMIT, NO_LIMIT)) {
+            MultipartStreamReader.Part empty = reader.next();
+            assertEquals("empty", empty.getName());
+            assertEquals(0, empty.getBody().readAllBytes().length);
+
+            MultipartStreamReader.Part bare = reader.next();
+            assertNull(bare.getName());
+            assertNull(bare.getContentType());
+            assertArrayEquals(bytes("no headers"), bare.getBody().readAllBytes());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void parsesPartHeaders() throws Exception {
+        byte[] body = body(part(fileHeaders("notes 1.pdf"), bytes("%PDF")));
+
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), NO_LIMIT, NO_LIMIT)) {
+            MultipartStreamReader.Part part = reader.next();
+            assertEquals("file", part.getName());
+            assertEquals("notes 1.pdf", part.getFilename());
+            assertEquals("application/octet-stream", part.getContentType());
+        }
+    }
+
+    @Test
+    void ignoresPreambleEpilogueAndTransportPadding() throws Exception {
+        byte[] body = concat(
+                bytes("This is the preamble.\r\n--" + BOUNDARY + " \t \r\n" + fieldHeaders("title") + "one"),
+                bytes("\r\n--" + BOUNDARY + "\r\n" + fieldHeaders("other") + "two"),
+                bytes("\r\n--" + BOUNDARY + "--\r\nThis is the epilogue, --" + BOUNDARY + "\r\n"));
+
+        List<byte[]> parts = readAll(new ByteArrayInputStream(body), NO_LIMIT, NO_LIMIT);
+
+        assertEquals(2, parts.size());
+        assertArrayEquals(bytes("one"), parts.get(0));
+        assertArrayEquals(bytes("two"), parts.get(1));
+    }
+
+    @Test
+    void skipsUnreadAndPartlyReadParts() throws Exception {
+        byte[] body = body(part(fileHeaders("a.bin"), payload(100_000)),
+                part(fileHeaders("b.bin"), payload(100_000)),
+                part(fieldHeaders("title"), bytes("last")));
+
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), NO_LIMIT, NO_LIMIT)) {
+            reader.next(); // not read at all
+            assertEquals(10, reader.next().getBody().readNBytes(10).length);
+            MultipartStreamReader.Part last = reader.next();
+            assertEquals("title", last.getName());
+            assertArrayEquals(bytes("last"), last.getBody().readAllBytes());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void throwsOnMissingClosingBoundary() throws Exception {
+        byte[] body = bytes("--" + BOUNDARY + "\r\n" + fieldHeaders("title") + "cut off here");
+
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), NO_LIMIT, NO_LIMIT)) {
+            MultipartStreamReader.Part part = reader.next();
+            assertThrows(EOFException.class, () -> part.getBody().readAllBytes());
+        }
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), NO_LIMIT, NO_LIMIT)) {
+            reader.next();
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+
+    @Test
+    void throwsOnTruncatedHeaders() throws Exception {
+        byte[] body = bytes("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"ti");
+
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), NO_LIMIT, NO_LIMIT)) {
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+
+    @Test
+    void rejectsOversizedPartWhileReading() throws Exception {
+        byte[] body = body(part(fileHeaders("a.bin"), payload(5000)));
+
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), 4096, NO_LIMIT)) {
+            MultipartStreamReader.Part part = reader.next();
+            assertThrows(MultipartStreamReader.SizeLimitExceededException.class,
+                    () -> part.getBody().readAllBytes());
+        }
+    }
+
+    @Test
+    void rejectsOversizedPartThatIsSkippedUnread() throws Exception {
+        byte[] body = body(part(fileHeaders("ignored.bin"), payload(200_000)),
+                part(fieldHeaders("title"), bytes("x")));
+
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), 100_000, NO_LIMIT)) {
+            reader.next();
+            assertThrows(MultipartStreamReader.SizeLimitExceededException.class, reader::next);
+        }
+    }
+
+    @Test
+    void acceptsPartOfExactlyTheMaximumSize() throws Exception {
+        byte[] payload = payload(100_000);
+        List<byte[]> parts = readAll(new ByteArrayInputStream(body(part(fileHeaders("a.bin"), payload))),
+                100_000, NO_LIMIT);
+
+        assertArrayEquals(payload, parts.get(0));
+    }
+
+    @Test
+    void countsSkippedPartsTowardsTheRequestLimit() throws Exception {
+        // Each part is within its own limit; together they are not
+        byte[] body = body(part(fieldHeaders("a"), payload(60_000)),
+                part(fieldHeaders("b"), payload(60_000)),
+                part(fieldHeaders("c"), payload(60_000)));
+
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), 100_000, 150_000)) {
+            IOException e = assertThrows(MultipartStreamReader.SizeLimitExceededException.class, () -> {
+                while (reader.next() != null) {
+                    // skip every part unread
+                }
+            });
+            assertTrue(e.getMessage().startsWith("Request"), e.getMessage());
+        }
+    }
+
+    @Test
+    void rejectsPartHeadersOverEightKilobytes() throws Exception {
+        String headers = "Content-Disposition: form-data; name=\"title\"\r\nX-Padding: "
+                + "p".repeat(8 * 1024) + "\r\n\r\n";
+        byte[] body = body(part(headers, bytes("x")));
+
+        try (MultipartStreamReader reader = reader(new ByteArrayInputStream(body), NO_LIMIT, NO_LIMIT)) {
+            IOException e = assertThrows(IOException.class, reader::next);
+            assertEquals("Multipart part headers too large", e.getMessage());
+        }
+    }
+
+    @Test
+    void acceptsPartHeadersOfExactlyEightKilobytes() throws Exception {
+        String prefix = "Content-Disposition: form-data; name=\"title\"\r\nX-Padding: ";
+        // exactly 8 KB including the blank line that ends the block
+        String headers = prefix + "p".repeat(8 * 1024 - prefix.length() - 4) + "\r\n\r\n";
+        List<byte[]> parts = readAll(new ByteArrayInputStream(body(part(headers, bytes("x")))), NO_LIMIT, NO_LIMIT);
+
+        assertArrayEquals(bytes("x"), parts.get(0));
+    }
+
+    @Test
+    void rejectsInvalidBoundaries() {
+        InputStream empty = new ByteArrayInputStream(new byte[0]);
+        assertThrows(IllegalArgumentException.class, () -> new MultipartStreamReader(empty, null, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MultipartStreamReader(empty, "", 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MultipartStreamReader(empty, "b".repeat(71), 1, 1));
+    }
+
+    private static MultipartStreamReader reader(InputStream in, long maxPartSize, long maxRequestSize) {
+        return new MultipartStreamReader(in, BOUNDARY, maxPartSize, maxRequestSize);
+    }
+
+    private static List<byte[]> readAll(InputStream in, long maxPartSize, long maxRequestSize) throws IOException {
+        List<byte[]> parts = new ArrayList<>();
+        try (MultipartStreamReader reader = reader(in, maxPartSize, maxRequestSize)) {
+            MultipartStreamReader.Part part;
+            while ((part = reader.next()) != null) {
+                parts.add(part.getBody().readAllBytes());
+            }
+        }
+        return parts;
+    }
+
+    private static String fileHeaders(String filename) {
+        return "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n";
+    }
+
+    private static String fieldHeaders(String name) {
+        return "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n";
+    }
+
+    // One part: headers (ending in the blank line, or empty for none) followed by its body
+    private static byte[] part(String headers, byte[] content) {
+        return concat(bytes(headers.isEmpty() ? "\r\n" : headers), content);
+    }
+
+    private static byte[] body(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(bytes("--" + BOUNDARY + "\r\n"));
+            out.writeBytes(part);
+            out.writeBytes(bytes("\r\n"));
+        }
+        out.writeBytes(bytes("--" + BOUNDARY + "--\r\n"));
+        return out.toByteArray();
+    }
+
+    // Full of CRs, LFs and dashes so near-miss delimiters show up at every offset
+    private static byte[] payload(int size) {
+        byte[] payload = new byte[size];
+        byte[] alphabet = bytes("\r\n-" + BOUNDARY.substring(0, 6));
+        for (int i = 0; i < size; i++) {
+            payload[i] = alphabet[(i * 7 + i / 13) % alphabet.length];
+        }
+        return payload;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Arrays.stream(parts).forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    // Hands out at most a few bytes per read, like a slow connection
+    private static final class ShortReads extends FilterInputStream {
+        private final int max;
+
+        ShortReads(byte[] data, int max) {
+            super(new ByteArrayInputStream(data));
+            this.max = max;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, max));
+        }
+    }
+}
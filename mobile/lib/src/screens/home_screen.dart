@@ -17,12 +17,26 @@ class ApiService {
   // Fetch all available courses
   static Future<List<Map<String, dynamic>>> fetchCourses() async {
     try {
-      final response = await http.get(Uri.parse("$baseUrl/courses"));
-      if (response.statusCode == 200) {
-        return List<Map<String, dynamic>>.from(jsonDecode(response.body));
-      } else {
-        throw Exception("Failed to load courses: ${response.statusCode}");
-      }
+      final courses = <Map<String, dynamic>>[];
+      String? cursor;
+      do {
+        // One page per request; nextCursor is absent on the last one
+        final uri = Uri.parse("$baseUrl/courses");
+        final response = await http.get(
+            cursor == null ? uri : uri.replace(queryParameters: {"cursor": cursor}));
+        if (response.statusCode != 200) {
+          throw Exception("Failed to load courses: ${response.statusCode}");
+        }
+        final body = jsonDecode(response.body);
+        if (body is List) {
+          courses.addAll(List<Map<String, dynamic>>.from(body));
+          cursor = null;
+        } else {
+          courses.addAll(List<Map<String, dynamic>>.from(body["data"]));
+          cursor = body["nextCursor"];
+        }
+      } while (cursor != null);
+      return courses;
     } catch (e) {
       throw Exception("Error fetching courses: $e");
     }
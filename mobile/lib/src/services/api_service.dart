@@ -43,6 +43,12 @@ class ApiService {
 
   static String? get role => _role;
 
+  // List endpoints answer one page at a time; pass the previous page's nextCursor back
+  static Uri _page(String url, String? cursor) {
+    final uri = Uri.parse(url);
+    return cursor == null ? uri : uri.replace(queryParameters: {"cursor": cursor});
+  }
+
   // ======================
   // AUTH
   // ======================
@@ -94,17 +100,23 @@ class ApiService {
   static Future<List<Map<String, dynamic>>> fetchCourses() async {
     await _ensureAuth();
 
-    final response = await http.get(
-      Uri.parse("$baseUrl/teacher/courses"),
-      headers: {"Authorization": "Bearer $_token"},
-    );
+    final courses = <Map<String, dynamic>>[];
+    String? cursor;
+    do {
+      final response = await http.get(
+        _page("$baseUrl/teacher/courses", cursor),
+        headers: {"Authorization": "Bearer $_token"},
+      );
 
-    final data = jsonDecode(response.body);
-    if (response.statusCode == 200 && data["status"] == "ok") {
-      return List<Map<String, dynamic>>.from(data["data"]);
-    } else {
-      throw Exception("Failed to load courses: ${data["msg"] ?? "Unknown"}");
-    }
+      final data = jsonDecode(response.body);
+      if (response.statusCode == 200 && data["status"] == "ok") {
+        courses.addAll(List<Map<String, dynamic>>.from(data["data"]));
+        cursor = data["nextCursor"];
+      } else {
+        throw Exception("Failed to load courses: ${data["msg"] ?? "Unknown"}");
+      }
+    } while (cursor != null);
+    return courses;
   }
 
   static Future<Map<String, dynamic>> addCourse(String title,
@@ -216,20 +228,26 @@ class ApiService {
       int courseId) async {
     await _ensureAuth();
 
-    final response = await http.get(
-      Uri.parse("$baseUrl/teacher/courses/$courseId/contents"),
-      headers: {"Authorization": "Bearer $_token"},
-    );
+    final contents = <Map<String, dynamic>>[];
+    String? cursor;
+    do {
+      final response = await http.get(
+        _page("$baseUrl/teacher/courses/$courseId/contents", cursor),
+        headers: {"Authorization": "Bearer $_token"},
+      );
 
-    final data = jsonDecode(response.body);
-    if (response.statusCode == 200 && data["status"] == "ok") {
-      return List<Map<String, dynamic>>.from(data["data"]);
-    } else if (response.statusCode == 404) {
-      return [];
-    } else {
-      throw Exception(
-          "Failed to load course content: ${data["msg"] ?? "Unknown"}");
-    }
+      final data = jsonDecode(response.body);
+      if (response.statusCode == 200 && data["status"] == "ok") {
+        contents.addAll(List<Map<String, dynamic>>.from(data["data"]));
+        cursor = data["nextCursor"];
+      } else if (response.statusCode == 404) {
+        return contents;
+      } else {
+        throw Exception(
+            "Failed to load course content: ${data["msg"] ?? "Unknown"}");
+      }
+    } while (cursor != null);
+    return contents;
   }
 
   static Future<Map<String, dynamic>> addCourseContent({
@@ -313,29 +331,32 @@ class ApiService {
   static Future<List<Map<String, dynamic>>> fetchCourseNotes(int courseId) async {
     await _ensureAuth();
 
-    final url = Uri.parse("http://192.168.0.15:8080/notes/courses/$courseId");
-    final response = await http.get(
-      url,
-      headers: {
-        "Content-Type": "application/json",
-        "Authorization": "Bearer $_token",
-      },
-    );
+    final notes = <Map<String, dynamic>>[];
+    String? cursor;
+    do {
+      final url = _page("http://192.168.0.15:8080/notes/courses/$courseId", cursor);
+      final response = await http.get(
+        url,
+        headers: {
+          "Content-Type": "application/json",
+          "Authorization": "Bearer $_token",
+        },
+      );
 
-    print("🔵 fetchCourseNotes Response Code: ${response.statusCode}");
-    print("🔵 fetchCourseNotes Response Body: ${response.body}");
+      print("🔵 fetchCourseNotes Response Code: ${response.statusCode}");
+      print("🔵 fetchCourseNotes Response Body: ${response.body}");
 
-    final data = jsonDecode(response.body);
-    if (response.statusCode == 200) {
-      if (data['success'] == true && data['data'] != null) {
-        return List<Map<String, dynamic>>.from(data['data']);
-      } else if (data['status'] == 'ok' && data['data'] != null) {
-        return List<Map<String, dynamic>>.from(data['data']);
+      final data = jsonDecode(response.body);
+      if (response.statusCode == 200) {
+        if ((data['success'] == true || data['status'] == 'ok') && data['data'] != null) {
+          notes.addAll(List<Map<String, dynamic>>.from(data['data']));
+        }
+        cursor = data['nextCursor'];
+      } else {
+        throw Exception(data['message'] ?? 'Failed to load notes: ${response.statusCode}');
       }
-      return [];
-    } else {
-      throw Exception(data['message'] ?? 'Failed to load notes: ${response.statusCode}');
-    }
+    } while (cursor != null);
+    return notes;
   }
 
   /// Fetch a single note by ID